@@ -4,14 +4,27 @@ import axios from "axios";
 import { BASE_URL } from "../Constants";
 
 // Define types for API response
-interface Booking {
-  room: { id: number; roomNumber: string };
-  customer: { id: number; name: string };
-  checkInDate: string;
-  checkOutDate: string;
-  bookingStatus: string;
+interface GridRun {
+  start: number;
+  length: number;
+  status: string;
+  customerName: string | null;
 }
 
+interface GridRow {
+  roomId: number;
+  roomNumber: string;
+  runs: GridRun[];
+}
+
+interface BookingGridResponse {
+  from: string;
+  days: number;
+  rows: GridRow[];
+}
+
+const GRID_DAYS = 31;
+
 const BookingGrid: React.FC = () => {
   const [rooms, setRooms] = useState<string[]>([]);
   const [dates, setDates] = useState<string[]>([]);
@@ -25,39 +38,36 @@ const BookingGrid: React.FC = () => {
 
   const fetchBookingData = async () => {
     try {
-      // Fetch bookings from the API
-      const response = await axios.get<Booking[]>(`${BASE_URL}/bookings`);
-      const bookings = response.data;
-
-      // Generate dates dynamically
-      const startDate = new Date();
-      const endDate = new Date();
-      endDate.setDate(endDate.getDate() + 30);
+      // The server builds the room x day matrix for the window, so only the
+      // occupied runs of each room come over the wire.
+      const response = await axios.get<BookingGridResponse>(`${BASE_URL}/bookings/grid`, {
+        params: { days: GRID_DAYS },
+      });
+      const { from, days, rows } = response.data;
+
+      // Generate dates for the window returned by the server
       const allDates: string[] = [];
-      for (let d = startDate; d <= endDate; d.setDate(d.getDate() + 1)) {
-        allDates.push(new Date(d).toISOString().split("T")[0]);
+      const startDate = new Date(`${from}T00:00:00Z`);
+      for (let i = 0; i < days; i++) {
+        const d = new Date(startDate);
+        d.setUTCDate(startDate.getUTCDate() + i);
+        allDates.push(d.toISOString().split("T")[0]);
       }
       setDates(allDates);
 
-      // Extract rooms and prepare grid data
-      const roomMap: Record<string, { name: string; status: string }[]> = {};
-      bookings.forEach(({ room, customer, checkInDate, checkOutDate, bookingStatus }) => {
-        if (!roomMap[room.roomNumber]) {
-          roomMap[room.roomNumber] = Array(allDates.length).fill({
-            name: "",
-            bookingStatus: "EMPTY",
-          });
-        }
-
-        allDates.forEach((date, index) => {
-          if (date >= checkInDate && date < checkOutDate) {
-            roomMap[room.roomNumber][index] = { name: customer.name, bookingStatus: bookingStatus };
+      // Expand each room's runs into one cell per day
+      const grid = rows.map(({ runs }) => {
+        const cells = Array(days).fill({ name: "", bookingStatus: "EMPTY" });
+        runs.forEach(({ start, length, status, customerName }) => {
+          for (let i = start; i < start + length; i++) {
+            cells[i] = { name: customerName || "", bookingStatus: status };
           }
         });
+        return cells;
       });
 
-      setRooms(Object.keys(roomMap));
-      setGridData(Object.values(roomMap));
+      setRooms(rows.map(({ roomNumber }) => roomNumber));
+      setGridData(grid);
     } catch (error) {
       console.error("Error fetching bookings:", error);
     }
@@ -0,0 +1,61 @@
+package com.example.profpride.benchmarks;
+
+import com.example.profpride.enums.BathroomType;
+import com.example.profpride.enums.RoomType;
+import com.example.profpride.models.Room;
+import com.example.profpride.repositories.RoomRepository;
+import com.example.profpride.services.CacheVersionService;
+import com.example.profpride.services.RoomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Free-room searches over the occupancy bitsets, in the last year where the fixture
+ * rooms are mostly booked and in the empty months ahead. Run with -p rooms=5000 to see
+ * how a search scales with the number of rooms.
+ */
+@State(Scope.Benchmark)
+public class AvailabilityBenchmark {
+
+    private RoomService roomService;
+    private LocalDate today;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(Fixtures fixtures) {
+        today = fixtures.firstFreeDay;
+        roomService = new RoomService();
+        Stubs.inject(roomService, "roomRepository", Stubs.repository(RoomRepository.class, Map.of(
+                "findAll", args -> fixtures.roomList)));
+        Stubs.inject(roomService, "occupancyIndex", Stubs.occupancyIndex(fixtures.bookingList));
+        Stubs.inject(roomService, "cacheVersionService", new CacheVersionService(null));
+    }
+
+    /** Three nights starting on each day of the last year in turn, any room. */
+    @Benchmark
+    public List<Room> threeNightsPast() {
+        LocalDate from = today.minusDays(1 + next++ % 365);
+        return roomService.getAvailableRooms(from, from.plusDays(3), null, null);
+    }
+
+    /** Three nights in the last year, one room type and bathroom. */
+    @Benchmark
+    public List<Room> threeNightsTyped() {
+        LocalDate from = today.minusDays(1 + next++ % 365);
+        return roomService.getAvailableRooms(from, from.plusDays(3), RoomType.QUEEN, BathroomType.ATTACHED);
+    }
+
+    /** Thirty nights spanning today, one or two words per room. */
+    @Benchmark
+    public List<Room> monthAcrossToday() {
+        LocalDate from = today.minusDays(1 + next++ % 30);
+        return roomService.getAvailableRooms(from, from.plusDays(30), null, null);
+    }
+}
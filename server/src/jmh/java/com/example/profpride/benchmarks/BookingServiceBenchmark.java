@@ -0,0 +1,134 @@
+package com.example.profpride.benchmarks;
+
+import com.example.profpride.dtos.BookingGrid;
+import com.example.profpride.enums.BookingStatusType;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.Room;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.OutboxEventRepository;
+import com.example.profpride.repositories.RoomRepository;
+import com.example.profpride.services.BookingService;
+import com.example.profpride.services.ChangeFeed;
+import com.example.profpride.services.OccupancyIndex;
+import com.example.profpride.services.Outbox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * BookingService paths that run in the JVM: pricing and the occupancy check in
+ * createBooking, and building the occupancy grid from its query rows. Repositories
+ * answer from the shared fixtures, so only our own code is measured.
+ */
+@State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+
+    private static final int GRID_DAYS = 31;
+
+    private BookingService bookingService;
+    private OccupancyIndex occupancyIndex;
+    private List<Room> rooms;
+    private LocalDateTime checkIn;
+    private LocalDate gridFrom;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(Fixtures fixtures) {
+        rooms = fixtures.roomList;
+        checkIn = fixtures.firstFreeDay.atTime(14, 0);
+        gridFrom = fixtures.firstFreeDay.minusDays(GRID_DAYS);
+
+        List<BookingRepository.GridStayView> gridStays = new ArrayList<>();
+        LocalDateTime gridStart = gridFrom.atStartOfDay();
+        for (Booking booking : fixtures.bookingList) {
+            if (booking.getCheckOutDate().isAfter(gridStart)) {
+                gridStays.add(new GridStay(booking.getRoom().getId(), booking.getCheckInDate(),
+                        booking.getCheckOutDate(), booking.getBookingStatus(), booking.getCustomer().getName()));
+            }
+        }
+
+        AtomicLong ids = new AtomicLong(fixtures.bookingList.size());
+        BookingRepository bookingRepository = Stubs.repository(BookingRepository.class, Map.of(
+                "findGridStays", args -> gridStays,
+                "save", args -> {
+                    Booking booking = (Booking) args[0];
+                    booking.setId(ids.incrementAndGet());
+                    return booking;
+                }));
+        Map<Long, Room> roomsById = fixtures.roomList.stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        RoomRepository roomRepository = Stubs.repository(RoomRepository.class, Map.of(
+                "findAll", args -> fixtures.roomList,
+                "findById", args -> Optional.ofNullable(roomsById.get((Long) args[0]))));
+
+        occupancyIndex = Stubs.occupancyIndex(fixtures.bookingList);
+
+        bookingService = new BookingService();
+        Stubs.inject(bookingService, "bookingRepository", bookingRepository);
+        Stubs.inject(bookingService, "roomRepository", roomRepository);
+        Stubs.inject(bookingService, "pricingEngine", Stubs.pricingEngine(fixtures.roomCosts, List.of(), roomRepository));
+        Stubs.inject(bookingService, "occupancyIndex", occupancyIndex);
+        Outbox outbox = new Outbox();
+        Stubs.inject(outbox, "outboxEventRepository", Stubs.repository(OutboxEventRepository.class, Map.of(
+                "save", args -> args[0])));
+        Stubs.inject(bookingService, "outbox", outbox);
+        // No subscribers, so publishing only numbers the event.
+        Stubs.inject(bookingService, "changeFeed", new ChangeFeed());
+    }
+
+    /**
+     * Prices and reserves a three-night stay after the last stay of the next room, then
+     * releases it again so every invocation sees the same index.
+     */
+    @Benchmark
+    public Booking createBooking() {
+        Booking booking = new Booking();
+        booking.setRoom(rooms.get(next++ % rooms.size()));
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkIn.plusDays(3));
+        booking.setBookingStatus(BookingStatusType.CONFIRMED);
+        Booking saved = bookingService.createBooking(booking);
+        occupancyIndex.release(saved.getId());
+        return saved;
+    }
+
+    @Benchmark
+    public BookingGrid bookingGrid() {
+        return bookingService.getBookingGrid(gridFrom, GRID_DAYS);
+    }
+
+    private record GridStay(Long roomId, LocalDateTime checkInDate, LocalDateTime checkOutDate,
+            BookingStatusType bookingStatus, String customerName) implements BookingRepository.GridStayView {
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        public LocalDateTime getCheckInDate() {
+            return checkInDate;
+        }
+
+        public LocalDateTime getCheckOutDate() {
+            return checkOutDate;
+        }
+
+        public BookingStatusType getBookingStatus() {
+            return bookingStatus;
+        }
+
+        public String getCustomerName() {
+            return customerName;
+        }
+    }
+}
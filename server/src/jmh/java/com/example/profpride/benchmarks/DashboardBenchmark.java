@@ -0,0 +1,70 @@
+package com.example.profpride.benchmarks;
+
+import com.example.profpride.models.Booking;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.services.DashboardService;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dashboard endpoints from service call to JSON. The date and balance filters run
+ * in SQL, so the repository stub hands back precomputed result lists and what is left
+ * to measure is the service plus serializing arrivals, departures and the due list
+ * (every booking with a balance, with its payments).
+ */
+@State(Scope.Benchmark)
+public class DashboardBenchmark {
+
+    private DashboardService dashboardService;
+    private ObjectWriter writer;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp(Fixtures fixtures) {
+        today = fixtures.firstFreeDay.minusDays(10);
+        List<Booking> arrivals = new ArrayList<>();
+        List<Booking> departures = new ArrayList<>();
+        for (Booking booking : fixtures.bookingList) {
+            if (booking.getCheckInDate().toLocalDate().equals(today)) {
+                arrivals.add(booking);
+            }
+            if (booking.getCheckOutDate().toLocalDate().equals(today)) {
+                departures.add(booking);
+            }
+        }
+
+        BookingRepository bookingRepository = Stubs.repository(BookingRepository.class, Map.of(
+                "findByCheckInDateGreaterThanEqualAndCheckInDateLessThan", args -> arrivals,
+                "findByCheckOutDateGreaterThanEqualAndCheckOutDateLessThan", args -> departures,
+                "findByBalanceGreaterThan", args -> fixtures.dueList));
+        dashboardService = new DashboardService();
+        Stubs.inject(dashboardService, "bookingRepository", bookingRepository);
+        writer = JacksonSupport.objectMapper().writer();
+    }
+
+    @Benchmark
+    public void arrivals() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), dashboardService.getArrivals(today));
+    }
+
+    @Benchmark
+    public void departures() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), dashboardService.getDepartures(today));
+    }
+
+    @Benchmark
+    public void dueList() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), dashboardService.getDueList());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.profpride.benchmarks;
+
+import com.example.profpride.enums.BathroomType;
+import com.example.profpride.enums.BookingDurationType;
+import com.example.profpride.enums.BookingStatusType;
+import com.example.profpride.enums.PaymentMode;
+import com.example.profpride.enums.RoomType;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.Customer;
+import com.example.profpride.models.Payment;
+import com.example.profpride.models.Room;
+import com.example.profpride.models.RoomCost;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic in-memory data set shared by all benchmarks in a fork: rooms with a
+ * full rate card, customers, and a history of non-overlapping bookings per room with
+ * their payments. The default sizes match production (100 rooms, 1M bookings, 5M
+ * payments); pass e.g. {@code -PjmhBookings=100000} for a quick run.
+ */
+@State(Scope.Benchmark)
+public class Fixtures {
+
+    @Param("100")
+    public int rooms;
+
+    @Param("1000000")
+    public int bookings;
+
+    @Param("5")
+    public int paymentsPerBooking;
+
+    public static final int CUSTOMERS = 50_000;
+
+    // Every ~50th booking is left with its last payment missing, so it shows up as due.
+    private static final int UNPAID_EVERY = 50;
+
+    public List<Room> roomList;
+    public List<RoomCost> roomCosts;
+    public List<Customer> customers;
+    public List<Booking> bookingList;
+    public List<Booking> dueList;
+    // No stay reaches this day, so new bookings from here on never collide.
+    public LocalDate firstFreeDay;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+
+        roomCosts = new ArrayList<>();
+        long costId = 1;
+        for (RoomType roomType : RoomType.values()) {
+            for (BathroomType bathroomType : BathroomType.values()) {
+                for (BookingDurationType duration : BookingDurationType.values()) {
+                    int cost = duration == BookingDurationType.DAILY ? 1500 + 500 * roomType.ordinal() : 900;
+                    roomCosts.add(new RoomCost(costId++, bathroomType, roomType, duration, cost));
+                }
+            }
+        }
+
+        roomList = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            RoomType roomType = RoomType.values()[i % RoomType.values().length];
+            BathroomType bathroomType = BathroomType.values()[(i / 4) % BathroomType.values().length];
+            roomList.add(new Room((long) i + 1, String.valueOf(101 + i), roomType, bathroomType, null));
+        }
+
+        customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(new Customer((long) i + 1, "Guest " + i, String.format("+1555%07d", i),
+                    "guest" + i + "@example.com", null, null, 0));
+        }
+
+        // Walk every room's calendar backwards from today, so all rooms are busy up to now.
+        firstFreeDay = LocalDate.now();
+        LocalDate[] earliest = new LocalDate[rooms];
+        Arrays.fill(earliest, firstFreeDay);
+        bookingList = new ArrayList<>(bookings);
+        dueList = new ArrayList<>();
+        long paymentId = 1;
+        PaymentMode[] modes = PaymentMode.values();
+        for (int i = 0; i < bookings; i++) {
+            int r = i % rooms;
+            LocalDate checkOut = earliest[r].minusDays(random.nextInt(2));
+            LocalDate checkIn = checkOut.minusDays(1 + random.nextInt(3));
+            earliest[r] = checkIn;
+
+            Booking booking = new Booking();
+            booking.setId((long) i + 1);
+            booking.setRoom(roomList.get(r));
+            booking.setCustomer(customers.get(random.nextInt(CUSTOMERS)));
+            booking.setCheckInDate(checkIn.atTime(14, 0));
+            booking.setCheckOutDate(checkOut.atTime(11, 0));
+            booking.setBookingStatus(BookingStatusType.CHECKED_OUT);
+            long due = 1000L * (1 + random.nextInt(20));
+            booking.setDueAmount(due);
+
+            boolean unpaid = i % UNPAID_EVERY == 0;
+            int paymentCount = unpaid ? paymentsPerBooking - 1 : paymentsPerBooking;
+            List<Payment> payments = new ArrayList<>(paymentCount);
+            long share = due / paymentsPerBooking;
+            for (int p = 0; p < paymentCount; p++) {
+                payments.add(new Payment(paymentId++, (int) share, checkIn.atTime(15, p),
+                        modes[random.nextInt(modes.length)], booking, 0));
+            }
+            long paid = share * paymentCount;
+            booking.setPayments(payments);
+            booking.setPaidAmount(paid);
+            booking.setBalance(due - paid);
+            bookingList.add(booking);
+            if (due > paid) {
+                dueList.add(booking);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.profpride.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+final class JacksonSupport {
+
+    private JacksonSupport() {
+    }
+
+    // Same defaults Spring Boot applies to the application's ObjectMapper.
+    static ObjectMapper objectMapper() {
+        return builder(true).build();
+    }
+
+    // Blackbird is registered in the application (WireFormatConfig); leave it out to
+    // compare with plain reflection.
+    static Jackson2ObjectMapperBuilder builder(boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        return builder;
+    }
+}
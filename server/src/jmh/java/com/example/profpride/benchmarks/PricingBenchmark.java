@@ -0,0 +1,85 @@
+package com.example.profpride.benchmarks;
+
+import com.example.profpride.dtos.Quote;
+import com.example.profpride.dtos.QuoteRequest;
+import com.example.profpride.enums.BathroomType;
+import com.example.profpride.enums.BookingDurationType;
+import com.example.profpride.enums.RoomType;
+import com.example.profpride.models.Room;
+import com.example.profpride.models.SeasonalRate;
+import com.example.profpride.repositories.RoomRepository;
+import com.example.profpride.services.PricingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PricingEngine over the fixture rate card plus a few seasonal rates: single stays that
+ * cross seasonal runs (run with -prof gc to see they allocate nothing), and a batch
+ * quote of QUOTES stays.
+ */
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    private static final int QUOTES = 200;
+
+    private PricingEngine pricingEngine;
+    private List<Room> rooms;
+    private List<QuoteRequest> quotes;
+    private long firstDay;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(Fixtures fixtures) {
+        rooms = fixtures.roomList;
+        int year = fixtures.firstFreeDay.getYear();
+        List<SeasonalRate> seasonalRates = List.of(
+                new SeasonalRate(1L, "Festival", null, null, BookingDurationType.DAILY,
+                        LocalDate.of(year, 10, 20), LocalDate.of(year, 11, 5), true, 4000),
+                new SeasonalRate(2L, "Year end", null, null, null,
+                        LocalDate.of(year, 12, 20), LocalDate.of(year + 1, 1, 5), true, 5000),
+                new SeasonalRate(3L, "Off season", RoomType.QUEEN, BathroomType.ATTACHED, null,
+                        LocalDate.of(year, 6, 1), LocalDate.of(year, 8, 31), false, 1200));
+        RoomRepository roomRepository = Stubs.repository(RoomRepository.class, Map.of(
+                "findAll", args -> fixtures.roomList));
+        pricingEngine = Stubs.pricingEngine(fixtures.roomCosts, seasonalRates, roomRepository);
+
+        firstDay = LocalDate.of(year, 1, 1).toEpochDay();
+        quotes = new ArrayList<>(QUOTES);
+        for (int i = 0; i < QUOTES; i++) {
+            QuoteRequest quote = new QuoteRequest();
+            quote.setRoomId(rooms.get(i % rooms.size()).getId());
+            quote.setFrom(LocalDate.ofEpochDay(firstDay + (i * 7L) % 365));
+            quote.setTo(quote.getFrom().plusDays(1 + i % 10));
+            quotes.add(quote);
+        }
+    }
+
+    /** Three nights starting on each day of the year in turn. */
+    @Benchmark
+    public long shortStay() {
+        Room room = rooms.get(next % rooms.size());
+        long checkIn = firstDay + next++ % 365;
+        return pricingEngine.price(room.getRoomType(), room.getBathroomType(), checkIn, checkIn + 3);
+    }
+
+    /** 45 nights at the monthly rate, over the year-end run. */
+    @Benchmark
+    public long monthlyStay() {
+        Room room = rooms.get(next++ % rooms.size());
+        long checkIn = firstDay + 340;
+        return pricingEngine.price(room.getRoomType(), room.getBathroomType(), checkIn, checkIn + 45);
+    }
+
+    @Benchmark
+    public List<Quote> quoteBatch() {
+        return pricingEngine.quote(quotes);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.profpride.benchmarks;
+
+import com.example.profpride.models.Booking;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Jackson serialization of the Booking graph (room, customer and payments) as the
+ * booking endpoints return it: one booking, and one page of the list endpoint.
+ */
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ObjectWriter writer;
+    private Booking booking;
+    private List<Booking> page;
+
+    @Setup(Level.Trial)
+    public void setUp(Fixtures fixtures) {
+        ObjectMapper objectMapper = JacksonSupport.objectMapper();
+        writer = objectMapper.writer();
+        booking = fixtures.bookingList.get(fixtures.bookingList.size() / 2);
+        page = fixtures.bookingList.subList(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public byte[] booking() throws IOException {
+        return writer.writeValueAsBytes(booking);
+    }
+
+    @Benchmark
+    public byte[] bookingPage() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    // Streams straight to a sink, as the message converter writes to the response.
+    @Benchmark
+    public void bookingPageStreamed() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), page);
+    }
+}
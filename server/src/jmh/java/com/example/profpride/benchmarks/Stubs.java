@@ -0,0 +1,113 @@
+package com.example.profpride.benchmarks;
+
+import com.example.profpride.configs.PropertyContext;
+import com.example.profpride.enums.BookingStatusType;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.RoomCost;
+import com.example.profpride.models.SeasonalRate;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.OutboxEventRepository;
+import com.example.profpride.repositories.RoomCostRepository;
+import com.example.profpride.repositories.RoomRepository;
+import com.example.profpride.repositories.SeasonalRateRepository;
+import com.example.profpride.services.CacheVersionService;
+import com.example.profpride.services.OccupancyIndex;
+import com.example.profpride.services.PricingEngine;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Wiring helpers for running services outside Spring: in-memory repository stubs and
+ * field injection for the services' {@code @Autowired} fields.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * A repository whose listed methods answer from memory; any other call fails so a
+     * benchmark can never silently measure an unstubbed path.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+        });
+    }
+
+    static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException(target.getClass().getSimpleName() + " has no field " + fieldName);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /** A pricing engine over the given rates; it is never polled, so its first table stays. */
+    static PricingEngine pricingEngine(List<RoomCost> roomCosts, List<SeasonalRate> seasonalRates,
+            RoomRepository roomRepository) {
+        PricingEngine pricingEngine = new PricingEngine();
+        inject(pricingEngine, "roomCostRepository", repository(RoomCostRepository.class, Map.of(
+                "findAll", args -> roomCosts)));
+        inject(pricingEngine, "seasonalRateRepository", repository(SeasonalRateRepository.class, Map.of(
+                "findAll", args -> seasonalRates)));
+        inject(pricingEngine, "roomRepository", roomRepository);
+        inject(pricingEngine, "cacheVersionService", new CacheVersionService(null));
+        return pricingEngine;
+    }
+
+    /** An occupancy index loaded with the stays of the given bookings that are not cancelled. */
+    static OccupancyIndex occupancyIndex(List<Booking> bookings) {
+        List<BookingRepository.StayView> stays = bookings.stream()
+                .filter(booking -> booking.getBookingStatus() != BookingStatusType.CANCELLED)
+                .<BookingRepository.StayView>map(booking -> new Stay(booking.getId(), booking.getRoom().getId(),
+                        booking.getCheckInDate(), booking.getCheckOutDate()))
+                .toList();
+        OccupancyIndex occupancyIndex = new OccupancyIndex();
+        inject(occupancyIndex, "propertyContext", new PropertyContext());
+        inject(occupancyIndex, "bookingRepository", repository(BookingRepository.class, Map.of(
+                "findStaysExcludingStatus", args -> stays)));
+        inject(occupancyIndex, "outboxEventRepository", repository(OutboxEventRepository.class, Map.of(
+                "findLastId", args -> null)));
+        occupancyIndex.load();
+        return occupancyIndex;
+    }
+
+    private record Stay(Long id, Long roomId, LocalDateTime checkInDate, LocalDateTime checkOutDate)
+            implements BookingRepository.StayView {
+        public Long getId() {
+            return id;
+        }
+
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        public LocalDateTime getCheckInDate() {
+            return checkInDate;
+        }
+
+        public LocalDateTime getCheckOutDate() {
+            return checkOutDate;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.profpride.benchmarks;
+
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.Payment;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding cost of one page of bookings (with room, customer and payments) and one page
+ * of payments in each wire format the API offers, with and without Blackbird. Payload
+ * sizes are printed once per trial, since JMH only reports time and allocation.
+ *
+ * json-gzip is what a client sending Accept-Encoding: gzip gets for the same JSON.
+ */
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({ "json", "json-gzip", "smile", "cbor" })
+    public String format;
+
+    @Param({ "true", "false" })
+    public boolean blackbird;
+
+    private ObjectWriter writer;
+    private boolean gzip;
+    private List<Booking> bookingPage;
+    private List<Payment> paymentPage;
+
+    @Setup(Level.Trial)
+    public void setUp(Fixtures fixtures) throws IOException {
+        Jackson2ObjectMapperBuilder builder = JacksonSupport.builder(blackbird);
+        switch (format) {
+            case "smile" -> builder.factory(new SmileFactory());
+            case "cbor" -> builder.factory(new CBORFactory());
+            default -> {
+            }
+        }
+        writer = builder.build().writer();
+        gzip = format.equals("json-gzip");
+        bookingPage = fixtures.bookingList.subList(0, PAGE_SIZE);
+        paymentPage = fixtures.bookingList.stream()
+                .flatMap(booking -> booking.getPayments().stream())
+                .limit(PAGE_SIZE)
+                .toList();
+        System.out.printf("%n%s: booking page %d bytes, payment page %d bytes%n",
+                format, encode(bookingPage).length, encode(paymentPage).length);
+    }
+
+    @Benchmark
+    public byte[] bookingPage() throws IOException {
+        return encode(bookingPage);
+    }
+
+    @Benchmark
+    public byte[] paymentPage() throws IOException {
+        return encode(paymentPage);
+    }
+
+    private byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            writer.writeValue(out, value);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.profpride.loadtest;
+
+import com.example.profpride.configs.QueryCountInspector;
+import com.example.profpride.models.Expense;
+import com.example.profpride.repositories.ExpenseRepository;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Insert throughput with one sequence round-trip per id (block size 1) against the
+ * pooled-lo blocks BlockSequenceGenerator hands out by default. Boots the app once per
+ * strategy, has a few writers insert expenses in chunks of the JDBC batch size, one
+ * transaction per chunk, and prints rows/s and the SQL statements run per row.
+ *
+ * Runs against in-memory H2 by default, which has no network round-trips, so the gap
+ * it shows is a lower bound. Pass --spring.datasource.url (and the credentials) to
+ * measure against a real MySQL.
+ *
+ * Options: --rows=50000 --chunk=100 --writers=4 --block-size=50
+ */
+public class IdBlockBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        int rows = options.getInt("rows", 50_000);
+        int chunk = options.getInt("chunk", 100);
+        int writers = options.getInt("writers", 4);
+        int blockSize = options.getInt("block-size", 50);
+
+        List<String> results = new ArrayList<>();
+        for (int size : new int[] { 1, blockSize }) {
+            String strategy = size == 1 ? "block size 1" : "pooled-lo " + size;
+            List<String> appArgs = new ArrayList<>(List.of(args));
+            appArgs.add("--spring.jpa.properties.profpride.id.block-size=" + size);
+            appArgs.add("--spring.jpa.properties.profpride.id.optimizer=pooled-lo");
+            try (ConfigurableApplicationContext app = TestApp.start(appArgs.toArray(String[]::new),
+                    "idblocks_" + size)) {
+                ExpenseRepository expenses = app.getBean(ExpenseRepository.class);
+                TransactionTemplate transactions = app.getBean(TransactionTemplate.class);
+                // Warm up the JIT and the connection pool on a tenth of the rows.
+                insert(expenses, transactions, rows / 10, chunk, writers);
+                long statements = QueryCountInspector.total();
+                long started = System.nanoTime();
+                insert(expenses, transactions, rows, chunk, writers);
+                double seconds = (System.nanoTime() - started) / 1e9;
+                results.add(String.format("%-14s %10d %12.0f %14.3f", strategy, rows, rows / seconds,
+                        (QueryCountInspector.total() - statements) / (double) rows));
+            }
+        }
+        System.out.printf("%n%-14s %10s %12s %14s%n", "ids", "rows", "rows/s", "statements/row");
+        results.forEach(System.out::println);
+    }
+
+    private static void insert(ExpenseRepository expenses, TransactionTemplate transactions, int rows, int chunk,
+            int writers) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int w = 0; w < writers; w++) {
+                int share = rows / writers + (w < rows % writers ? 1 : 0);
+                futures.add(executor.submit(() -> {
+                    for (int done = 0; done < share; done += chunk) {
+                        List<Expense> batch = new ArrayList<>(chunk);
+                        for (int i = done; i < Math.min(share, done + chunk); i++) {
+                            batch.add(new Expense(null, "Supplies", "Benchmark row " + i, 100,
+                                    LocalDateTime.now(), 0));
+                        }
+                        transactions.executeWithoutResult(status -> expenses.saveAll(batch));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+}
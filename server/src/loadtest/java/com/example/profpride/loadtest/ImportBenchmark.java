@@ -0,0 +1,161 @@
+package com.example.profpride.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Rows per second through the bulk import endpoints against the same rows posted one
+ * at a time, for customers and for payments (which also move their bookings' ledgers).
+ * Seeds a small hotel first so payments have bookings to go to, and checks afterwards
+ * that the bookings' paid totals grew by exactly what was paid. Fails when importing
+ * payments is less than --min-speedup times faster than posting them.
+ *
+ * Runs against in-memory H2 by default. Pass --spring.datasource.url (and the
+ * credentials) to measure against a real MySQL.
+ *
+ * Options: --rows=20000 --posts=2000 --chunk-size=500 --rooms=20 --min-speedup=10
+ */
+public class ImportBenchmark {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final String base;
+    private final List<Long> bookingIds;
+    // Numbers every generated row, so no two customers share a phone number or email.
+    private int serial;
+
+    private ImportBenchmark(String base, List<Long> bookingIds) {
+        this.base = base;
+        this.bookingIds = bookingIds;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        int rows = options.getInt("rows", 20_000);
+        int posts = options.getInt("posts", 2_000);
+        int chunkSize = options.getInt("chunk-size", 500);
+        double minSpeedup = options.getDouble("min-speedup", 10);
+
+        double paymentSpeedup;
+        List<String> results = new ArrayList<>();
+        try (ConfigurableApplicationContext app = TestApp.start(args, "imports")) {
+            String base = TestApp.baseUrl(app);
+            Seeder.Data data = Seeder.seed(base, options.getInt("rooms", 20), 200, 0);
+            ImportBenchmark benchmark = new ImportBenchmark(base, data.bookingIds());
+
+            benchmark.compare("customers", "/api/v1/customers", "/api/v1/import/customers?chunkSize=" + chunkSize,
+                    benchmark::customer, rows, posts, results);
+            long paidBefore = benchmark.totalPaid();
+            paymentSpeedup = benchmark.compare("payments", "/api/v1/payments",
+                    "/api/v1/import/payments?chunkSize=" + chunkSize, benchmark::payment, rows, posts, results);
+            // Every payment row above is for 100; warmups included.
+            long expected = 100L * (rows + rows / 10 + posts + posts / 10);
+            long paid = benchmark.totalPaid() - paidBefore;
+            if (paid != expected) {
+                throw new IllegalStateException("bookings' paid totals grew by " + paid + ", expected " + expected);
+            }
+        }
+        System.out.printf("%n%-10s %12s %12s %8s%n", "rows", "import/s", "POST/s", "speedup");
+        results.forEach(System.out::println);
+        if (paymentSpeedup < minSpeedup) {
+            System.out.printf("%nImporting payments is %.1fx faster than posting them, below the %.0fx target%n",
+                    paymentSpeedup, minSpeedup);
+            System.exit(1);
+        }
+    }
+
+    /** Measures both ways of writing rows, each after a warmup of a tenth as many, and returns the speedup. */
+    private double compare(String name, String postPath, String importPath, IntFunction<ObjectNode> row, int rows,
+            int posts, List<String> results) throws IOException, InterruptedException {
+        postRows(postPath, row, posts / 10);
+        double postRate = posts / seconds(() -> postRows(postPath, row, posts));
+        importRows(importPath, row, rows / 10);
+        double importRate = rows / seconds(() -> importRows(importPath, row, rows));
+        results.add(String.format("%-10s %12.0f %12.0f %7.1fx", name, importRate, postRate, importRate / postRate));
+        return importRate / postRate;
+    }
+
+    private void postRows(String path, IntFunction<ObjectNode> row, int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            send(path, "application/json", row.apply(serial++).toString());
+        }
+    }
+
+    private void importRows(String path, IntFunction<ObjectNode> row, int count)
+            throws IOException, InterruptedException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ndjson.append(row.apply(serial++)).append('\n');
+        }
+        JsonNode report = JSON.readTree(send(path, NDJSON, ndjson.toString()));
+        if (report.get("imported").asInt() != count) {
+            throw new IllegalStateException(path + " imported " + report.get("imported") + " of " + count
+                    + " rows: " + report.get("errors"));
+        }
+    }
+
+    private ObjectNode customer(int i) {
+        return JSON.createObjectNode()
+                .put("name", "Walk-in " + i)
+                .put("phoneNumber", String.format("+1666%07d", i))
+                .put("email", "walkin" + i + "@example.com");
+    }
+
+    private ObjectNode payment(int i) {
+        return JSON.createObjectNode()
+                .put("bookingId", bookingIds.get(i % bookingIds.size()))
+                .put("amount", 100)
+                .put("mode", "CASH")
+                .put("createdAt", LocalDate.now().atTime(12, 0).toString());
+    }
+
+    private long totalPaid() throws IOException, InterruptedException {
+        HttpResponse<String> export = http.send(
+                HttpRequest.newBuilder(URI.create(base + "/api/v1/export/bookings?format=NDJSON")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        long total = 0;
+        for (String line : export.body().split("\n")) {
+            if (!line.isBlank()) {
+                total += JSON.readTree(line).get("paidAmount").asLong();
+            }
+        }
+        return total;
+    }
+
+    private String send(String path, String contentType, String body) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("POST " + path + " returned " + response.statusCode() + ": "
+                    + response.body());
+        }
+        return response.body();
+    }
+
+    private static double seconds(Step step) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        step.run();
+        return (System.nanoTime() - started) / 1e9;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws IOException, InterruptedException;
+    }
+}
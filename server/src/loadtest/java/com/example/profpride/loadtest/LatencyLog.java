@@ -0,0 +1,45 @@
+package com.example.profpride.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of latencies in nanoseconds; one per client thread so recording a
+ * sample never contends.
+ */
+class LatencyLog {
+
+    private long[] values = new long[1024];
+    private int size;
+
+    void add(long nanos) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = nanos;
+    }
+
+    void addAll(long[] more) {
+        if (size + more.length > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + more.length, size * 2));
+        }
+        System.arraycopy(more, 0, values, size, more.length);
+        size += more.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /** Nearest-rank percentile of sorted nanosecond samples, in milliseconds. */
+    static double percentileMillis(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
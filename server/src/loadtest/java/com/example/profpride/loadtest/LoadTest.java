@@ -0,0 +1,133 @@
+package com.example.profpride.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test: boots the app on an in-memory MySQL-mode H2 database, seeds it
+ * with {@link Seeder}, runs {@link Traffic}'s front-desk mix with a fixed number of
+ * closed-loop clients, and reports throughput and p50/p95/p99 latency per endpoint.
+ *
+ * The results are compared with a stored baseline recorded with the same settings. A
+ * p95 or p99 more than --tolerance above the baseline, throughput more than
+ * --tolerance below it, or any failed request, fails the run. --record-baseline
+ * replaces the baseline with this run instead.
+ *
+ * Options: --rooms=100 --customers=5000 --years=3 --clients=50 --seconds=60 --warmup=15
+ * --tolerance=0.25 --baseline=path --report=path --record-baseline
+ */
+public class LoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        int rooms = options.getInt("rooms", 100);
+        int customers = options.getInt("customers", 5000);
+        int years = options.getInt("years", 3);
+        int clients = options.getInt("clients", 50);
+        int seconds = options.getInt("seconds", 60);
+        int warmup = options.getInt("warmup", 15);
+        double tolerance = options.getDouble("tolerance", 0.25);
+        Path baseline = Path.of(options.get("baseline", "src/loadtest/resources/loadtest-baseline.json"));
+        Path report = Path.of(options.get("report", "build/reports/loadtest/results.json"));
+
+        List<Traffic.Stats> results;
+        try (ConfigurableApplicationContext app = TestApp.start(args, "loadtest")) {
+            String base = TestApp.baseUrl(app);
+            long started = System.nanoTime();
+            Seeder.Data data = Seeder.seed(base, rooms, customers, years);
+            System.out.printf("Seeded %d rooms, %d customers, %d bookings and %d payments in %d s%n",
+                    data.roomIds().size(), data.customerIds().size(), data.bookingIds().size(), data.payments(),
+                    Duration.ofNanos(System.nanoTime() - started).toSeconds());
+            Traffic traffic = new Traffic(base, data);
+            traffic.run(clients, Duration.ofSeconds(warmup));
+            results = traffic.run(clients, Duration.ofSeconds(seconds));
+        }
+
+        System.out.printf("%n%-28s %8s %9s %8s %8s %8s %7s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "errors");
+        for (Traffic.Stats stats : results) {
+            System.out.printf("%-28s %8d %9.1f %8.1f %8.1f %8.1f %7d%n", stats.endpoint(), stats.requests(),
+                    stats.throughput(), stats.p50(), stats.p95(), stats.p99(), stats.errors());
+        }
+
+        ObjectNode run = JSON.createObjectNode();
+        ObjectNode settings = run.putObject("settings");
+        settings.put("rooms", rooms).put("customers", customers).put("years", years)
+                .put("clients", clients).put("seconds", seconds);
+        ObjectNode endpoints = run.putObject("endpoints");
+        for (Traffic.Stats stats : results) {
+            endpoints.set(stats.endpoint(), JSON.valueToTree(stats));
+        }
+        write(report, run);
+
+        if (options.has("record-baseline")) {
+            write(baseline, run);
+            System.out.println("\nRecorded baseline " + baseline);
+            return;
+        }
+        List<String> failures = check(run, baseline, tolerance);
+        if (!failures.isEmpty()) {
+            System.out.println("\nLoad test failed:");
+            failures.forEach(failure -> System.out.println("  " + failure));
+            System.exit(1);
+        }
+    }
+
+    private static List<String> check(JsonNode run, Path baselinePath, double tolerance) throws IOException {
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> endpoint : run.get("endpoints").properties()) {
+            if (endpoint.getValue().get("errors").asLong() > 0) {
+                failures.add(endpoint.getKey() + ": " + endpoint.getValue().get("errors") + " failed requests");
+            }
+        }
+        if (!Files.exists(baselinePath)) {
+            System.out.println("\nNo baseline at " + baselinePath + "; run with --record-baseline to create one.");
+            return failures;
+        }
+        JsonNode baseline = JSON.readTree(baselinePath.toFile());
+        if (!baseline.get("settings").equals(run.get("settings"))) {
+            System.out.println("\nBaseline was recorded with " + baseline.get("settings") + ", not comparing.");
+            return failures;
+        }
+        for (Map.Entry<String, JsonNode> endpoint : run.get("endpoints").properties()) {
+            JsonNode expected = baseline.get("endpoints").get(endpoint.getKey());
+            if (expected == null) {
+                continue;
+            }
+            JsonNode actual = endpoint.getValue();
+            for (String percentile : new String[] { "p95", "p99" }) {
+                double limit = expected.get(percentile).asDouble() * (1 + tolerance);
+                if (actual.get(percentile).asDouble() > limit) {
+                    failures.add(String.format("%s: %s %.1f ms exceeds %.1f ms", endpoint.getKey(), percentile,
+                            actual.get(percentile).asDouble(), limit));
+                }
+            }
+            double floor = expected.get("throughput").asDouble() * (1 - tolerance);
+            if (actual.get("throughput").asDouble() < floor) {
+                failures.add(String.format("%s: %.1f req/s is below %.1f req/s", endpoint.getKey(),
+                        actual.get("throughput").asDouble(), floor));
+            }
+        }
+        return failures;
+    }
+
+    private static void write(Path path, JsonNode json) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        JSON.writeValue(path.toFile(), json);
+    }
+}
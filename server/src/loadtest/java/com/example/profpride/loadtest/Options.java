@@ -0,0 +1,41 @@
+package com.example.profpride.loadtest;
+
+/**
+ * Reads --name=value options from the command line; anything else is left for Spring.
+ */
+final class Options {
+
+    private final String[] args;
+
+    Options(String[] args) {
+        this.args = args;
+    }
+
+    String get(String name, String fallback) {
+        for (String arg : args) {
+            if (arg.startsWith("--" + name + "=")) {
+                return arg.substring(name.length() + 3);
+            }
+        }
+        return fallback;
+    }
+
+    int getInt(String name, int fallback) {
+        String value = get(name, null);
+        return value != null ? Integer.parseInt(value) : fallback;
+    }
+
+    double getDouble(String name, double fallback) {
+        String value = get(name, null);
+        return value != null ? Double.parseDouble(value) : fallback;
+    }
+
+    boolean has(String flag) {
+        for (String arg : args) {
+            if (arg.equals("--" + flag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.profpride.loadtest;
+
+import com.example.profpride.configs.PropertyContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the app with two sharded properties, north and south, each on its own
+ * in-memory H2 database next to the default one, and checks that nothing one property
+ * writes is seen through another: room lists and their ETags, rooms by id (both
+ * properties hand out the same ids), free rooms, and the P&L. It also checks that an
+ * unknown property is refused and that the all-properties P&L adds up every property.
+ */
+public class PropertyIsolationCheck {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String[] PROPERTIES = { "north", "south" };
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final List<String> failures = new ArrayList<>();
+    private String base;
+
+    public static void main(String[] args) throws Exception {
+        List<String> appArgs = new ArrayList<>(List.of(args));
+        appArgs.add("--profpride.sharding.properties=" + String.join(",", PROPERTIES));
+        for (String property : PROPERTIES) {
+            appArgs.add("--profpride.sharding." + property + ".url=jdbc:h2:mem:isolation_" + property
+                    + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        }
+        appArgs.add("--profpride.projector.interval-ms=200");
+
+        PropertyIsolationCheck check = new PropertyIsolationCheck();
+        try (ConfigurableApplicationContext app = TestApp.start(appArgs.toArray(String[]::new), "isolation_default")) {
+            check.base = TestApp.baseUrl(app);
+            check.run();
+        }
+        if (!check.failures.isEmpty()) {
+            System.out.println("\nProperty isolation check failed:");
+            check.failures.forEach(failure -> System.out.println("  " + failure));
+            System.exit(1);
+        }
+        System.out.println("Property isolation check passed");
+    }
+
+    private void run() throws IOException, InterruptedException {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        long[] roomIds = new long[PROPERTIES.length];
+        for (int i = 0; i < PROPERTIES.length; i++) {
+            String property = PROPERTIES[i];
+            roomIds[i] = create(property, "/api/v1/rooms", JSON.createObjectNode()
+                    .put("roomNumber", property + "-101")
+                    .put("roomType", "SINGLE")
+                    .put("bathroomType", "ATTACHED"));
+            long customerId = create(property, "/api/v1/customers", JSON.createObjectNode()
+                    .put("name", "Guest of " + property)
+                    .put("phoneNumber", "+1555" + i)
+                    .put("email", property + "@example.com"));
+            // Only north is booked; south's room stays free on the same nights.
+            if (i == 0) {
+                ObjectNode booking = JSON.createObjectNode()
+                        .put("checkInDate", checkIn.atTime(14, 0).toString())
+                        .put("checkOutDate", checkIn.plusDays(3).atTime(11, 0).toString())
+                        .put("bookingStatus", "NEW");
+                booking.putObject("room").put("id", roomIds[i]);
+                booking.putObject("customer").put("id", customerId);
+                long bookingId = create(property, "/api/v1/bookings", booking);
+                create(property, "/api/v1/payments", JSON.createObjectNode()
+                        .put("bookingId", bookingId)
+                        .put("amount", 1000)
+                        .put("mode", "CASH")
+                        .put("createdAt", LocalDate.now().atTime(12, 0).toString()));
+            }
+            create(property, "/api/v1/expenses", JSON.createObjectNode()
+                    .put("name", "Linen")
+                    .put("description", "Supplies")
+                    .put("amount", 100 * (i + 1))
+                    .put("createdAt", LocalDate.now().atTime(9, 0).toString()));
+        }
+        expect(roomIds[0] == roomIds[1], "the properties should number their rooms independently, got "
+                + roomIds[0] + " and " + roomIds[1]);
+
+        String northEtag = null;
+        for (int i = 0; i < PROPERTIES.length; i++) {
+            String property = PROPERTIES[i];
+            HttpResponse<String> rooms = send(get(property, "/api/v1/rooms"));
+            JsonNode list = JSON.readTree(rooms.body());
+            expect(list.size() == 1 && list.get(0).get("roomNumber").asText().equals(property + "-101"),
+                    property + " should list only its own room, got " + rooms.body());
+            JsonNode room = JSON.readTree(send(get(property, "/api/v1/rooms/" + roomIds[i])).body());
+            expect(room.get("roomNumber").asText().equals(property + "-101"),
+                    property + " room " + roomIds[i] + " is " + room);
+            if (i == 0) {
+                northEtag = rooms.headers().firstValue("ETag").orElse(null);
+            }
+            String free = send(get(property, "/api/v1/rooms/available?from=" + checkIn + "&to="
+                    + checkIn.plusDays(2))).body();
+            expect(JSON.readTree(free).size() == (i == 0 ? 0 : 1),
+                    property + " free rooms while only north's is booked: " + free);
+        }
+        JsonNode defaultRooms = JSON.readTree(send(get(null, "/api/v1/rooms")).body());
+        expect(defaultRooms.isEmpty(), "the default property should have no rooms, got " + defaultRooms);
+        if (northEtag != null) {
+            HttpRequest revalidate = HttpRequest.newBuilder(URI.create(base + "/api/v1/rooms"))
+                    .header(PropertyContext.HEADER, PROPERTIES[1]).header("If-None-Match", northEtag).build();
+            expect(send(revalidate).statusCode() == 200, "north's ETag should not revalidate south's rooms");
+        }
+        expect(send(get("nowhere", "/api/v1/rooms")).statusCode() == 400, "an unknown property should get 400");
+
+        checkGroupPnl();
+    }
+
+    // The read models catch up after a projector pass or two.
+    private void checkGroupPnl() throws IOException, InterruptedException {
+        String path = "/api/v1/reports/pnl/properties?from=" + LocalDate.now() + "&to=" + LocalDate.now();
+        JsonNode report = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            report = JSON.readTree(send(get(null, path)).body());
+            JsonNode total = report.get("combined").get("total");
+            if (total.get("revenue").asLong() == 1000 && total.get("expenses").asLong() == 300) {
+                break;
+            }
+            Thread.sleep(200);
+        }
+        JsonNode total = report.get("combined").get("total");
+        expect(total.get("revenue").asLong() == 1000 && total.get("expenses").asLong() == 300,
+                "all properties should total 1000 revenue and 300 expenses, got " + total);
+        JsonNode byProperty = report.get("byProperty");
+        expect(byProperty.get(PropertyContext.DEFAULT).get("expenses").asLong() == 0
+                        && byProperty.get("north").get("revenue").asLong() == 1000
+                        && byProperty.get("north").get("expenses").asLong() == 100
+                        && byProperty.get("south").get("revenue").asLong() == 0
+                        && byProperty.get("south").get("expenses").asLong() == 200,
+                "per-property totals do not match what was written: " + byProperty);
+        expect(report.get("combined").get("expensesByName").get("linen").asLong() == 300,
+                "expenses by name should be summed across properties: " + report.get("combined"));
+    }
+
+    private void expect(boolean condition, String failure) {
+        if (!condition) {
+            failures.add(failure);
+        }
+    }
+
+    private long create(String property, String path, JsonNode body) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(base + path))
+                .header(PropertyContext.HEADER, property)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(property + " POST " + path + " returned " + response.statusCode()
+                    + ": " + response.body());
+        }
+        return JSON.readTree(response.body()).get("id").asLong();
+    }
+
+    // A null property sends no header, which means the default one.
+    private HttpRequest get(String property, String path) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path));
+        if (property != null) {
+            request.header(PropertyContext.HEADER, property);
+        }
+        return request.build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
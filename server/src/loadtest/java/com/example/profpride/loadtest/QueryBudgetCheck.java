@@ -0,0 +1,441 @@
+package com.example.profpride.loadtest;
+
+import com.example.profpride.configs.QueryCountInspector;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Runs every controller endpoint against a small and a four times larger seeded data
+ * set and counts the SQL statements each request runs (via {@link QueryCountInspector}).
+ * Each endpoint is called once to warm the second-level cache and then measured.
+ *
+ * Budgets live in query-budgets.txt. An endpoint fails when it has no budget, exceeds
+ * it on either data set, or runs more statements on the larger set than on the smaller
+ * one, which is how an N+1 shows up before it reaches the budget. Endpoints budgeted
+ * as "n" are known N+1s: they are reported but not enforced.
+ *
+ * Requests are sent one at a time and background jobs are pushed out, so the global
+ * statement count between two points belongs to the request in between.
+ */
+public class QueryBudgetCheck {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String UNBOUNDED = "n";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> budgets = readBudgets();
+        Map<String, Long> small = measure(args, "budget_small", 4, 40, 1);
+        Map<String, Long> large = measure(args, "budget_large", 16, 160, 1);
+
+        List<String> failures = new ArrayList<>();
+        System.out.printf("%n%-40s %7s %7s %7s%n", "endpoint", "budget", "small", "large");
+        for (String endpoint : small.keySet()) {
+            String budget = budgets.get(endpoint);
+            long smallCount = small.get(endpoint);
+            long largeCount = large.get(endpoint);
+            System.out.printf("%-40s %7s %7d %7d%n", endpoint, budget != null ? budget : "-", smallCount, largeCount);
+            if (budget == null) {
+                failures.add(endpoint + " has no budget in query-budgets.txt");
+            } else if (!budget.equals(UNBOUNDED)) {
+                long limit = Long.parseLong(budget);
+                if (Math.max(smallCount, largeCount) > limit) {
+                    failures.add(endpoint + " ran " + Math.max(smallCount, largeCount) + " statements, budget " + limit);
+                } else if (largeCount > smallCount) {
+                    failures.add(endpoint + " grows with the data: " + smallCount + " -> " + largeCount + " statements");
+                }
+            }
+        }
+        for (String endpoint : budgets.keySet()) {
+            if (!small.containsKey(endpoint)) {
+                failures.add("query-budgets.txt lists " + endpoint + ", which is not exercised");
+            }
+        }
+        if (!failures.isEmpty()) {
+            System.out.println("\nQuery budget check failed:");
+            failures.forEach(failure -> System.out.println("  " + failure));
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Long> measure(String[] args, String database, int rooms, int customers, int years)
+            throws Exception {
+        String[] appArgs = new String[args.length + 5];
+        System.arraycopy(args, 0, appArgs, 0, args.length);
+        appArgs[args.length] = "--profpride.cache.poll-interval-ms=3600000";
+        appArgs[args.length + 1] = "--profpride.ledger.reconcile-cron=-";
+        appArgs[args.length + 2] = "--profpride.projector.interval-ms=3600000";
+        appArgs[args.length + 3] = "--profpride.projector.prune-cron=-";
+        appArgs[args.length + 4] = "--profpride.occupancy.refresh-ms=3600000";
+        try (ConfigurableApplicationContext app = TestApp.start(appArgs, database)) {
+            Fixture fixture = new Fixture(TestApp.baseUrl(app), Seeder.seed(TestApp.baseUrl(app), rooms, customers, years));
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (Endpoint endpoint : endpoints()) {
+                fixture.send(endpoint, endpoint.request().apply(fixture));
+                HttpRequest request = endpoint.request().apply(fixture);
+                long before = QueryCountInspector.total();
+                fixture.send(endpoint, request);
+                counts.put(endpoint.name(), QueryCountInspector.total() - before);
+            }
+            return counts;
+        }
+    }
+
+    private static List<Endpoint> endpoints() {
+        List<Endpoint> endpoints = new ArrayList<>();
+        endpoints.add(new Endpoint("GET /api/v1/rooms", f -> f.get("/api/v1/rooms")));
+        endpoints.add(new Endpoint("GET /api/v1/rooms If-None-Match", f -> f.revalidate("/api/v1/rooms")));
+        endpoints.add(new Endpoint("GET /api/v1/rooms/page", f -> f.get("/api/v1/rooms/page?size=20")));
+        endpoints.add(new Endpoint("GET /api/v1/rooms/available",
+                f -> f.get("/api/v1/rooms/available?from=" + LocalDate.now() + "&to=" + LocalDate.now().plusDays(3)
+                        + "&type=QUEEN")));
+        endpoints.add(new Endpoint("GET /api/v1/rooms/{id}", f -> f.get("/api/v1/rooms/" + f.roomId())));
+        endpoints.add(new Endpoint("POST /api/v1/rooms", f -> f.post("/api/v1/rooms", f.room())));
+        endpoints.add(new Endpoint("PUT /api/v1/rooms/{id}", f -> f.put("/api/v1/rooms/" + f.roomId(), f.room())));
+        endpoints.add(new Endpoint("DELETE /api/v1/rooms/{id}",
+                f -> f.delete("/api/v1/rooms/" + f.create("/api/v1/rooms", f.room()))));
+
+        endpoints.add(new Endpoint("GET /api/v1/roomcost", f -> f.get("/api/v1/roomcost")));
+        endpoints.add(new Endpoint("GET /api/v1/roomcost If-None-Match", f -> f.revalidate("/api/v1/roomcost")));
+        endpoints.add(new Endpoint("GET /api/v1/roomcost/{id}", f -> f.get("/api/v1/roomcost/" + f.roomCostId())));
+        endpoints.add(new Endpoint("POST /api/v1/roomcost", f -> f.post("/api/v1/roomcost", f.roomCost())));
+        endpoints.add(new Endpoint("PUT /api/v1/roomcost/{id}",
+                f -> f.put("/api/v1/roomcost/" + f.create("/api/v1/roomcost", f.roomCost()), f.roomCost())));
+        endpoints.add(new Endpoint("DELETE /api/v1/roomcost/{id}",
+                f -> f.delete("/api/v1/roomcost/" + f.create("/api/v1/roomcost", f.roomCost()))));
+        endpoints.add(new Endpoint("GET /api/v1/seasonalrates", f -> f.get("/api/v1/seasonalrates")));
+        endpoints.add(new Endpoint("POST /api/v1/seasonalrates", f -> f.post("/api/v1/seasonalrates", f.seasonalRate())));
+        endpoints.add(new Endpoint("PUT /api/v1/seasonalrates/{id}",
+                f -> f.put("/api/v1/seasonalrates/" + f.create("/api/v1/seasonalrates", f.seasonalRate()),
+                        f.seasonalRate())));
+        endpoints.add(new Endpoint("DELETE /api/v1/seasonalrates/{id}",
+                f -> f.delete("/api/v1/seasonalrates/" + f.create("/api/v1/seasonalrates", f.seasonalRate()))));
+        endpoints.add(new Endpoint("POST /api/v1/quotes", f -> f.post("/api/v1/quotes", f.quotes())));
+
+        endpoints.add(new Endpoint("GET /api/v1/customers", f -> f.get("/api/v1/customers")));
+        endpoints.add(new Endpoint("GET /api/v1/customers/page", f -> f.get("/api/v1/customers/page?size=20&name=Guest")));
+        endpoints.add(new Endpoint("GET /api/v1/customers?fields", f -> f.get("/api/v1/customers?fields=id,name")));
+        endpoints.add(new Endpoint("GET /api/v1/customers/page?fields",
+                f -> f.get("/api/v1/customers/page?size=20&fields=name,email")));
+        endpoints.add(new Endpoint("GET /api/v1/customers/{id}", f -> f.get("/api/v1/customers/" + f.customerId())));
+        endpoints.add(new Endpoint("POST /api/v1/customers", f -> f.post("/api/v1/customers", f.customer())));
+        endpoints.add(new Endpoint("PUT /api/v1/customers/{id}",
+                f -> f.put("/api/v1/customers/" + f.customerId(), f.customer())));
+        endpoints.add(new Endpoint("PATCH /api/v1/customers/{id}",
+                f -> f.patch("/api/v1/customers/" + f.create("/api/v1/customers", f.customer()),
+                        f.changes().put("email", "patched@example.com"))));
+        endpoints.add(new Endpoint("DELETE /api/v1/customers/{id}",
+                f -> f.delete("/api/v1/customers/" + f.create("/api/v1/customers", f.customer()))));
+
+        endpoints.add(new Endpoint("GET /api/v1/bookings", f -> f.get("/api/v1/bookings")));
+        endpoints.add(new Endpoint("GET /api/v1/bookings/page", f -> f.get("/api/v1/bookings/page?size=20")));
+        endpoints.add(new Endpoint("GET /api/v1/bookings?fields",
+                f -> f.get("/api/v1/bookings?fields=id,checkInDate,room.roomNumber,customer.name")));
+        endpoints.add(new Endpoint("GET /api/v1/bookings/page?fields",
+                f -> f.get("/api/v1/bookings/page?size=20&fields=balance,room.roomNumber,customer.name")));
+        endpoints.add(new Endpoint("GET /api/v1/bookings/grid", f -> f.get("/api/v1/bookings/grid?days=31")));
+        endpoints.add(new Endpoint("GET /api/v1/bookings/{id}", f -> f.get("/api/v1/bookings/" + f.bookingId())));
+        endpoints.add(new Endpoint("POST /api/v1/bookings", f -> f.post("/api/v1/bookings", f.booking())));
+        endpoints.add(new Endpoint("PUT /api/v1/bookings/{id}",
+                f -> f.put("/api/v1/bookings/" + f.create("/api/v1/bookings", f.booking()), f.booking())));
+        endpoints.add(new Endpoint("PATCH /api/v1/bookings/{id}",
+                f -> f.patch("/api/v1/bookings/" + f.create("/api/v1/bookings", f.booking()),
+                        f.changes().put("bookingStatus", "CHECKED_IN"))));
+        endpoints.add(new Endpoint("DELETE /api/v1/bookings/{id}",
+                f -> f.delete("/api/v1/bookings/" + f.create("/api/v1/bookings", f.booking()))));
+
+        endpoints.add(new Endpoint("GET /api/v1/payments", f -> f.get("/api/v1/payments")));
+        endpoints.add(new Endpoint("GET /api/v1/payments/page", f -> f.get("/api/v1/payments/page?size=20")));
+        endpoints.add(new Endpoint("GET /api/v1/payments?fields",
+                f -> f.get("/api/v1/payments?fields=amount,booking.id,booking.room.roomNumber")));
+        endpoints.add(new Endpoint("GET /api/v1/payments/page?fields",
+                f -> f.get("/api/v1/payments/page?size=20&fields=amount,mode,booking.customer.name")));
+        endpoints.add(new Endpoint("GET /api/v1/payments/{id}",
+                f -> f.get("/api/v1/payments/" + f.create("/api/v1/payments", f.payment()))));
+        endpoints.add(new Endpoint("POST /api/v1/payments", f -> f.post("/api/v1/payments", f.payment())));
+        endpoints.add(new Endpoint("PUT /api/v1/payments/{id}",
+                f -> f.put("/api/v1/payments/" + f.create("/api/v1/payments", f.payment()), f.payment())));
+        endpoints.add(new Endpoint("PATCH /api/v1/payments/{id}",
+                f -> f.patch("/api/v1/payments/" + f.create("/api/v1/payments", f.payment()),
+                        f.changes().put("amount", 75))));
+        endpoints.add(new Endpoint("DELETE /api/v1/payments/{id}",
+                f -> f.delete("/api/v1/payments/" + f.create("/api/v1/payments", f.payment()))));
+
+        endpoints.add(new Endpoint("GET /api/v1/expenses", f -> f.get("/api/v1/expenses")));
+        endpoints.add(new Endpoint("GET /api/v1/expenses/page", f -> f.get("/api/v1/expenses/page?size=20")));
+        endpoints.add(new Endpoint("GET /api/v1/expenses/{id}",
+                f -> f.get("/api/v1/expenses/" + f.create("/api/v1/expenses", f.expense()))));
+        endpoints.add(new Endpoint("POST /api/v1/expenses", f -> f.post("/api/v1/expenses", f.expense())));
+        endpoints.add(new Endpoint("PUT /api/v1/expenses/{id}",
+                f -> f.put("/api/v1/expenses/" + f.create("/api/v1/expenses", f.expense()), f.expense())));
+        endpoints.add(new Endpoint("PATCH /api/v1/expenses/{id}",
+                f -> f.patch("/api/v1/expenses/" + f.create("/api/v1/expenses", f.expense()),
+                        f.changes().put("description", "patched"))));
+        endpoints.add(new Endpoint("DELETE /api/v1/expenses/{id}",
+                f -> f.delete("/api/v1/expenses/" + f.create("/api/v1/expenses", f.expense()))));
+
+        endpoints.add(new Endpoint("GET /api/v1/arrivals", f -> f.get("/api/v1/arrivals")));
+        endpoints.add(new Endpoint("GET /api/v1/departures", f -> f.get("/api/v1/departures")));
+        endpoints.add(new Endpoint("GET /api/v1/due", f -> f.get("/api/v1/due")));
+        endpoints.add(new Endpoint("GET /api/v1/dashboard", f -> f.get("/api/v1/dashboard")));
+        endpoints.add(new Endpoint("GET /api/v1/projections", f -> f.get("/api/v1/projections")));
+        endpoints.add(new Endpoint("GET /api/v1/reports/pnl",
+                f -> f.get("/api/v1/reports/pnl?from=" + LocalDate.now().minusMonths(3) + "&to=" + LocalDate.now())));
+        endpoints.add(new Endpoint("GET /api/v1/reports/pnl/properties",
+                f -> f.get("/api/v1/reports/pnl/properties?from=" + LocalDate.now().minusMonths(3) + "&to="
+                        + LocalDate.now())));
+
+        endpoints.add(new Endpoint("GET /api/v1/export/bookings", f -> f.get("/api/v1/export/bookings?format=NDJSON")));
+        endpoints.add(new Endpoint("GET /api/v1/export/payments", f -> f.get("/api/v1/export/payments?format=NDJSON")));
+        endpoints.add(new Endpoint("GET /api/v1/export/expenses", f -> f.get("/api/v1/export/expenses?format=NDJSON")));
+        endpoints.add(new Endpoint("POST /api/v1/import/customers",
+                f -> f.importRows("/api/v1/import/customers", f.customer())));
+        endpoints.add(new Endpoint("POST /api/v1/import/bookings",
+                f -> f.importRows("/api/v1/import/bookings", f.bookingRow())));
+        endpoints.add(new Endpoint("POST /api/v1/import/payments",
+                f -> f.importRows("/api/v1/import/payments", f.payment())));
+
+        endpoints.add(new Endpoint("GET /api/v1/cache/stats", f -> f.get("/api/v1/cache/stats")));
+        return endpoints;
+    }
+
+    private static Map<String, String> readBudgets() throws IOException {
+        Map<String, String> budgets = new LinkedHashMap<>();
+        try (InputStream in = QueryBudgetCheck.class.getResourceAsStream("/query-budgets.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("query-budgets.txt is missing from the loadtest resources");
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int split = line.lastIndexOf(' ');
+                budgets.put(line.substring(0, split).strip(), line.substring(split + 1));
+            }
+        }
+        return budgets;
+    }
+
+    private record Endpoint(String name, Function<Fixture, HttpRequest> request) {
+    }
+
+    /**
+     * Ids from the seeded data plus request bodies that always succeed: new bookings
+     * take free nights past the seeded calendar and new names never repeat.
+     */
+    private static final class Fixture {
+
+        private final HttpClient http = HttpClient.newHttpClient();
+        private final String base;
+        private final Seeder.Data data;
+        private LocalDate nextFreeDay;
+        private int sequence;
+
+        Fixture(String base, Seeder.Data data) {
+            this.base = base;
+            this.data = data;
+            this.nextFreeDay = data.firstFreeDay();
+        }
+
+        void send(Endpoint endpoint, HttpRequest request) {
+            HttpResponse<String> response = exchange(request);
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException(endpoint.name() + " returned " + response.statusCode() + ": "
+                        + response.body());
+            }
+        }
+
+        /** Creates an entity outside the measured request and returns its id. */
+        long create(String path, ObjectNode body) {
+            HttpResponse<String> response = exchange(post(path, body));
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("POST " + path + " returned " + response.statusCode() + ": "
+                        + response.body());
+            }
+            try {
+                return JSON.readTree(response.body()).get("id").asLong();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        long roomId() {
+            return data.roomIds().get(0);
+        }
+
+        long customerId() {
+            return data.customerIds().get(0);
+        }
+
+        long bookingId() {
+            return data.bookingIds().get(data.bookingIds().size() / 2);
+        }
+
+        long roomCostId() {
+            try {
+                JsonNode costs = JSON.readTree(exchange(get("/api/v1/roomcost")).body());
+                return costs.get(0).get("id").asLong();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        ObjectNode room() {
+            return JSON.createObjectNode()
+                    .put("roomNumber", "B" + (++sequence))
+                    .put("roomType", "DOUBLE")
+                    .put("bathroomType", "ATTACHED");
+        }
+
+        ObjectNode roomCost() {
+            return JSON.createObjectNode()
+                    .put("roomType", "SINGLE")
+                    .put("bathroomType", "COMMON")
+                    .put("bookingDurationType", "DAILY")
+                    .put("cost", 1000 + (++sequence));
+        }
+
+        ObjectNode seasonalRate() {
+            LocalDate start = LocalDate.now().plusDays(++sequence);
+            return JSON.createObjectNode()
+                    .put("name", "Season " + sequence)
+                    .put("roomType", "SINGLE")
+                    .put("startDate", start.toString())
+                    .put("endDate", start.plusDays(10).toString())
+                    .put("cost", 1200);
+        }
+
+        /** One stay per room, as many rooms as the data set has. */
+        ArrayNode quotes() {
+            ArrayNode quotes = JSON.createArrayNode();
+            for (Long roomId : data.roomIds()) {
+                quotes.addObject()
+                        .put("roomId", roomId)
+                        .put("from", LocalDate.now().toString())
+                        .put("to", LocalDate.now().plusDays(3).toString());
+            }
+            return quotes;
+        }
+
+        ObjectNode customer() {
+            int n = ++sequence;
+            return JSON.createObjectNode()
+                    .put("name", "Budget Guest " + n)
+                    .put("phoneNumber", "+1666" + n)
+                    .put("email", "budget" + n + "@example.com");
+        }
+
+        ObjectNode booking() {
+            ObjectNode body = bookingDates(JSON.createObjectNode()).put("bookingStatus", "NEW");
+            body.putObject("room").put("id", roomId());
+            body.putObject("customer").put("id", customerId());
+            return body;
+        }
+
+        ObjectNode bookingRow() {
+            return bookingDates(JSON.createObjectNode())
+                    .put("roomId", roomId())
+                    .put("customerId", customerId())
+                    .put("bookingStatus", "NEW")
+                    .put("dueAmount", 1000);
+        }
+
+        ObjectNode payment() {
+            return JSON.createObjectNode()
+                    .put("bookingId", bookingId())
+                    .put("amount", 100)
+                    .put("mode", "CASH")
+                    .put("createdAt", LocalDate.now().atTime(12, 0).toString());
+        }
+
+        /** PATCH body for an entity created by {@link #create}, which is still at version 0. */
+        ObjectNode changes() {
+            return JSON.createObjectNode().put("version", 0);
+        }
+
+        ObjectNode expense() {
+            return JSON.createObjectNode()
+                    .put("name", "Expense " + (++sequence))
+                    .put("description", "Supplies")
+                    .put("amount", 250)
+                    .put("createdAt", LocalDate.now().atTime(9, 0).toString());
+        }
+
+        private ObjectNode bookingDates(ObjectNode body) {
+            LocalDate checkIn = nextFreeDay;
+            nextFreeDay = checkIn.plusDays(2);
+            return body.put("checkInDate", checkIn.atTime(14, 0).toString())
+                    .put("checkOutDate", checkIn.plusDays(2).atTime(11, 0).toString());
+        }
+
+        HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(base + path)).build();
+        }
+
+        /** A GET carrying the ETag the endpoint returns right now, so it should answer 304. */
+        HttpRequest revalidate(String path) {
+            String etag = exchange(get(path)).headers().firstValue("ETag")
+                    .orElseThrow(() -> new IllegalStateException("GET " + path + " sent no ETag"));
+            return HttpRequest.newBuilder(URI.create(base + path)).header("If-None-Match", etag).build();
+        }
+
+        HttpRequest post(String path, JsonNode body) {
+            return withBody(path, "POST", "application/json", body.toString());
+        }
+
+        HttpRequest put(String path, ObjectNode body) {
+            return withBody(path, "PUT", "application/json", body.toString());
+        }
+
+        HttpRequest patch(String path, ObjectNode body) {
+            return withBody(path, "PATCH", "application/json", body.toString());
+        }
+
+        HttpRequest delete(String path) {
+            return HttpRequest.newBuilder(URI.create(base + path)).DELETE().build();
+        }
+
+        HttpRequest importRows(String path, ObjectNode row) {
+            return withBody(path, "POST", "application/x-ndjson", row.toString() + "\n");
+        }
+
+        private HttpRequest withBody(String path, String method, String contentType, String body) {
+            return HttpRequest.newBuilder(URI.create(base + path))
+                    .header("Content-Type", contentType)
+                    .method(method, HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private HttpResponse<String> exchange(HttpRequest request) {
+            try {
+                return http.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
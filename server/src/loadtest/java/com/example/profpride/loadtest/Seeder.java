@@ -0,0 +1,170 @@
+package com.example.profpride.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills a freshly started app with a deterministic data set through the public API:
+ * rooms with a rate card, customers, and {@code years} of bookings per room (plus a
+ * month of future reservations) with their payments. Rooms and rate cards are posted
+ * one by one; everything else goes through the bulk import endpoints. Stays never
+ * overlap within a room, and about one past booking in thirty is left partly unpaid.
+ */
+class Seeder {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String[] ROOM_TYPES = { "SINGLE", "DOUBLE", "TRIPLE", "QUEEN" };
+    private static final String[] BATHROOM_TYPES = { "ATTACHED", "COMMON" };
+    private static final String[] PAYMENT_MODES = { "CASH", "UPI", "CREDIT_CARD", "DEBIT_CARD", "NET_BANKING" };
+    private static final int DAYS_AHEAD = 30;
+
+    record Data(List<Long> roomIds, List<Long> customerIds, List<Long> bookingIds, int payments,
+            LocalDate firstFreeDay) {
+    }
+
+    static Data seed(String base, int rooms, int customers, int years) throws IOException, InterruptedException {
+        HttpClient http = HttpClient.newHttpClient();
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+
+        for (String roomType : ROOM_TYPES) {
+            for (String bathroomType : BATHROOM_TYPES) {
+                int daily = 1500 + 500 * Arrays.asList(ROOM_TYPES).indexOf(roomType);
+                postRoomCost(http, base, roomType, bathroomType, "DAILY", daily);
+                postRoomCost(http, base, roomType, bathroomType, "MONTHLY", daily * 6 / 10);
+            }
+        }
+
+        List<Long> roomIds = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            String body = JSON.createObjectNode()
+                    .put("roomNumber", String.valueOf(101 + i))
+                    .put("roomType", ROOM_TYPES[i % ROOM_TYPES.length])
+                    .put("bathroomType", BATHROOM_TYPES[(i / ROOM_TYPES.length) % BATHROOM_TYPES.length])
+                    .toString();
+            roomIds.add(post(http, base + "/api/v1/rooms", "application/json", body).get("id").asLong());
+        }
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < customers; i++) {
+            ndjson.append(JSON.createObjectNode()
+                    .put("name", "Guest " + i)
+                    .put("phoneNumber", String.format("+1555%07d", i))
+                    .put("email", "guest" + i + "@example.com")).append('\n');
+        }
+        importRows(http, base + "/api/v1/import/customers", ndjson);
+        List<Long> customerIds = new ArrayList<>(customers);
+        for (JsonNode customer : get(http, base + "/api/v1/customers")) {
+            customerIds.add(customer.get("id").asLong());
+        }
+
+        // Walk each room's calendar backwards from a month ahead, so every room is busy
+        // today and nothing is booked from firstFreeDay on.
+        LocalDate firstFreeDay = today.plusDays(DAYS_AHEAD);
+        LocalDate oldest = today.minusYears(years);
+        ndjson.setLength(0);
+        for (int r = 0; r < rooms; r++) {
+            LocalDate earliest = firstFreeDay;
+            while (earliest.isAfter(oldest)) {
+                LocalDate checkOut = earliest.minusDays(random.nextInt(3));
+                LocalDate checkIn = checkOut.minusDays(1 + random.nextInt(5));
+                earliest = checkIn;
+                String status = checkOut.isBefore(today) ? "CHECKED_OUT"
+                        : checkIn.isAfter(today) ? "CONFIRMED" : "CHECKED_IN";
+                ndjson.append(JSON.createObjectNode()
+                        .put("roomId", roomIds.get(r))
+                        .put("customerId", customerIds.get(random.nextInt(customerIds.size())))
+                        .put("checkInDate", checkIn.atTime(14, 0).toString())
+                        .put("checkOutDate", checkOut.atTime(11, 0).toString())
+                        .put("bookingStatus", status)
+                        .put("dueAmount", 1000L * (1 + random.nextInt(20)))).append('\n');
+            }
+        }
+        importRows(http, base + "/api/v1/import/bookings", ndjson);
+
+        // Read the stored bookings back to learn their ids, and pay for the started ones.
+        List<Long> bookingIds = new ArrayList<>();
+        ndjson.setLength(0);
+        int payments = 0;
+        String export = send(http, HttpRequest.newBuilder(URI.create(base + "/api/v1/export/bookings?format=NDJSON"))
+                .build());
+        for (String line : export.split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode booking = JSON.readTree(line);
+            long id = booking.get("id").asLong();
+            bookingIds.add(id);
+            LocalDate checkIn = LocalDate.parse(booking.get("checkInDate").asText().substring(0, 10));
+            if (checkIn.isAfter(today)) {
+                continue;
+            }
+            long due = booking.get("dueAmount").asLong();
+            int parts = 1 + random.nextInt(3);
+            long paid = random.nextInt(30) == 0 ? due / 2 : due;
+            for (int p = 0; p < parts; p++) {
+                long amount = p < parts - 1 ? paid / parts : paid - (paid / parts) * (parts - 1);
+                ndjson.append(JSON.createObjectNode()
+                        .put("bookingId", id)
+                        .put("amount", amount)
+                        .put("createdAt", checkIn.atTime(15, p).toString())
+                        .put("mode", PAYMENT_MODES[random.nextInt(PAYMENT_MODES.length)])).append('\n');
+                payments++;
+            }
+        }
+        importRows(http, base + "/api/v1/import/payments", ndjson);
+        return new Data(roomIds, customerIds, bookingIds, payments, firstFreeDay);
+    }
+
+    private static void importRows(HttpClient http, String url, CharSequence ndjson)
+            throws IOException, InterruptedException {
+        JsonNode report = post(http, url, NDJSON, ndjson.toString());
+        if (report.get("rejected").asInt() > 0) {
+            throw new IllegalStateException(url + " rejected rows: " + report.get("errors"));
+        }
+    }
+
+    private static void postRoomCost(HttpClient http, String base, String roomType, String bathroomType,
+            String duration, int cost) throws IOException, InterruptedException {
+        String body = JSON.createObjectNode()
+                .put("roomType", roomType)
+                .put("bathroomType", bathroomType)
+                .put("bookingDurationType", duration)
+                .put("cost", cost)
+                .toString();
+        post(http, base + "/api/v1/roomcost", "application/json", body);
+    }
+
+    private static JsonNode post(HttpClient http, String url, String contentType, String body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return JSON.readTree(send(http, request));
+    }
+
+    private static JsonNode get(HttpClient http, String url) throws IOException, InterruptedException {
+        return JSON.readTree(send(http, HttpRequest.newBuilder(URI.create(url)).build()));
+    }
+
+    private static String send(HttpClient http, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
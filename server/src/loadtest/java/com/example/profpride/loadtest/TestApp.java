@@ -0,0 +1,47 @@
+package com.example.profpride.loadtest;
+
+import com.example.profpride.ProfprideApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts ProfprideApplication in-process on a random port. Unless the arguments say
+ * otherwise it runs on a fresh in-memory H2 database in MySQL mode with quiet logging;
+ * any --spring.* argument (a MySQL url, say) takes precedence.
+ */
+final class TestApp {
+
+    private TestApp() {
+    }
+
+    static ConfigurableApplicationContext start(String[] args, String database, String... profiles) {
+        List<String> appArgs = new ArrayList<>(Arrays.asList(args));
+        defaultArg(appArgs, "spring.datasource.url",
+                "jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        defaultArg(appArgs, "spring.datasource.username", "sa");
+        defaultArg(appArgs, "spring.datasource.password", "");
+        defaultArg(appArgs, "spring.jpa.hibernate.ddl-auto", "create");
+        defaultArg(appArgs, "spring.jpa.show-sql", "false");
+        defaultArg(appArgs, "server.port", "0");
+        defaultArg(appArgs, "logging.level.root", "WARN");
+        defaultArg(appArgs, "spring.main.banner-mode", "off");
+        return new SpringApplicationBuilder(ProfprideApplication.class)
+                .profiles(profiles)
+                .run(appArgs.toArray(String[]::new));
+    }
+
+    static String baseUrl(ConfigurableApplicationContext app) {
+        return "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+    }
+
+    // Only add the default when absent; a repeated argument would be bound as "a,b".
+    private static void defaultArg(List<String> args, String key, String value) {
+        if (args.stream().noneMatch(arg -> arg.startsWith("--" + key + "="))) {
+            args.add("--" + key + "=" + value);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.profpride.loadtest;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the app twice, once on the default Tomcat platform-thread pool and once with
+ * the virtual-threads profile, and runs the same closed-loop read mix against each
+ * with many concurrent clients. It prints throughput, latency percentiles, errors and
+ * the peak number of platform threads for both modes.
+ *
+ * Runs against in-memory H2 by default. Pass --spring.datasource.url (and the
+ * credentials) to measure against a real MySQL, where request threads actually block.
+ *
+ * Options: --clients=1000 --seconds=30 --warmup=10 --rooms=100 --customers=2000 --years=1
+ */
+public class ThreadModeBenchmark {
+
+    // Short front-desk reads; the unbounded due list would measure its own cost, not the threading.
+    private static final String[] ENDPOINTS = {
+            "/api/v1/rooms",
+            "/api/v1/arrivals",
+            "/api/v1/departures",
+            "/api/v1/bookings/page?size=20",
+            "/api/v1/customers/page?size=20",
+    };
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        int clients = options.getInt("clients", 1000);
+        int seconds = options.getInt("seconds", 30);
+        int warmup = options.getInt("warmup", 10);
+
+        List<String> results = new ArrayList<>();
+        for (boolean virtual : new boolean[] { false, true }) {
+            String mode = virtual ? "virtual" : "platform";
+            try (ConfigurableApplicationContext app = virtual
+                    ? TestApp.start(args, "bench_" + mode, "virtual-threads")
+                    : TestApp.start(args, "bench_" + mode)) {
+                String base = TestApp.baseUrl(app);
+                Seeder.seed(base, options.getInt("rooms", 100), options.getInt("customers", 2000),
+                        options.getInt("years", 1));
+                drive(base, clients, Duration.ofSeconds(warmup));
+                ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+                threads.resetPeakThreadCount();
+                Result result = drive(base, clients, Duration.ofSeconds(seconds));
+                results.add(result.format(mode, clients, threads.getPeakThreadCount()));
+            }
+        }
+        System.out.printf("%n%-9s %8s %10s %8s %8s %8s %8s %8s%n",
+                "mode", "clients", "req/s", "p50 ms", "p95 ms", "p99 ms", "errors", "threads");
+        results.forEach(System.out::println);
+    }
+
+    private static Result drive(String base, int clients, Duration duration) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                futures.add(executor.submit(() -> {
+                    LatencyLog latencies = new LatencyLog();
+                    for (int i = client; System.nanoTime() < deadline; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(base + ENDPOINTS[i % ENDPOINTS.length]))
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - started);
+                    }
+                    return latencies.toArray();
+                }));
+            }
+        }
+        LatencyLog all = new LatencyLog();
+        for (Future<long[]> future : futures) {
+            all.addAll(future.get());
+        }
+        return new Result(all.toArray(), errors.get(), duration);
+    }
+
+    private record Result(long[] latencies, long errors, Duration duration) {
+        String format(String mode, int clients, int peakThreads) {
+            Arrays.sort(latencies);
+            return String.format("%-9s %8d %10.0f %8.1f %8.1f %8.1f %8d %8d", mode, clients,
+                    latencies.length / (double) duration.toSeconds(),
+                    percentile(0.50), percentile(0.95), percentile(0.99), errors, peakThreads);
+        }
+
+        double percentile(double p) {
+            return LatencyLog.percentileMillis(latencies, p);
+        }
+    }
+}
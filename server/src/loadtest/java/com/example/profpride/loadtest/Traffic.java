@@ -0,0 +1,188 @@
+package com.example.profpride.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * The request mix of a busy front desk: dashboards polling arrivals, departures, dues
+ * and the occupancy grid, staff browsing bookings and looking up guests, new bookings
+ * and payments being posted. Each client picks its next request by weight from its own
+ * seeded Random, so runs with the same settings send the same mix.
+ */
+class Traffic {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String[] PAYMENT_MODES = { "CASH", "UPI", "CREDIT_CARD", "DEBIT_CARD" };
+
+    private final String base;
+    private final Seeder.Data data;
+    private final List<Operation> operations = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    // Next free epoch day per room; new bookings claim nights from here so they never collide.
+    private final AtomicLongArray nextFreeDay;
+
+    Traffic(String base, Seeder.Data data) {
+        this.base = base;
+        this.data = data;
+        this.nextFreeDay = new AtomicLongArray(data.roomIds().size());
+        for (int i = 0; i < nextFreeDay.length(); i++) {
+            nextFreeDay.set(i, data.firstFreeDay().toEpochDay());
+        }
+
+        operations.add(new Operation("GET /arrivals", 15, random -> get("/api/v1/arrivals")));
+        operations.add(new Operation("GET /departures", 10, random -> get("/api/v1/departures")));
+        operations.add(new Operation("GET /due", 5, random -> get("/api/v1/due")));
+        operations.add(new Operation("GET /bookings/grid", 10, random -> get("/api/v1/bookings/grid?days=31")));
+        operations.add(new Operation("GET /bookings/page", 15, random -> get("/api/v1/bookings/page?size=20")));
+        operations.add(new Operation("GET /bookings/{id}", 5,
+                random -> get("/api/v1/bookings/" + pick(random, data.bookingIds()))));
+        operations.add(new Operation("GET /customers/page", 10,
+                random -> get("/api/v1/customers/page?size=20&name=Guest%20" + random.nextInt(100))));
+        operations.add(new Operation("GET /rooms", 10, random -> get("/api/v1/rooms")));
+        operations.add(new Operation("POST /bookings", 10, this::createBooking));
+        operations.add(new Operation("POST /payments", 10, this::createPayment));
+
+        cumulativeWeights = new int[operations.size()];
+        int total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            total += operations.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    List<Stats> run(int clients, Duration duration) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<ClientLog>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                Random random = new Random(1000L + c);
+                futures.add(executor.submit(() -> {
+                    ClientLog log = new ClientLog(operations.size());
+                    while (System.nanoTime() < deadline) {
+                        int op = pickOperation(random);
+                        HttpRequest request = operations.get(op).request().apply(random);
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                log.errors[op]++;
+                            }
+                        } catch (Exception e) {
+                            log.errors[op]++;
+                        }
+                        log.latencies[op].add(System.nanoTime() - started);
+                    }
+                    return log;
+                }));
+            }
+        }
+
+        List<Stats> stats = new ArrayList<>();
+        for (int op = 0; op < operations.size(); op++) {
+            LatencyLog latencies = new LatencyLog();
+            long errors = 0;
+            for (Future<ClientLog> future : futures) {
+                latencies.addAll(future.get().latencies[op].toArray());
+                errors += future.get().errors[op];
+            }
+            long[] sorted = latencies.toArray();
+            Arrays.sort(sorted);
+            stats.add(new Stats(operations.get(op).name(), sorted.length, errors,
+                    round(sorted.length / (double) duration.toSeconds()),
+                    round(LatencyLog.percentileMillis(sorted, 0.50)),
+                    round(LatencyLog.percentileMillis(sorted, 0.95)),
+                    round(LatencyLog.percentileMillis(sorted, 0.99))));
+        }
+        return stats;
+    }
+
+    private HttpRequest createBooking(Random random) {
+        int room = random.nextInt(data.roomIds().size());
+        int nights = 1 + random.nextInt(4);
+        LocalDate checkIn = LocalDate.ofEpochDay(nextFreeDay.getAndAdd(room, nights));
+        ObjectNode body = JSON.createObjectNode()
+                .put("checkInDate", checkIn.atTime(14, 0).toString())
+                .put("checkOutDate", checkIn.plusDays(nights).atTime(11, 0).toString())
+                .put("bookingStatus", "NEW");
+        body.putObject("room").put("id", data.roomIds().get(room));
+        body.putObject("customer").put("id", pick(random, data.customerIds()));
+        return post("/api/v1/bookings", body);
+    }
+
+    private HttpRequest createPayment(Random random) {
+        ObjectNode body = JSON.createObjectNode()
+                .put("bookingId", pick(random, data.bookingIds()))
+                .put("amount", 100 * (1 + random.nextInt(20)))
+                .put("mode", PAYMENT_MODES[random.nextInt(PAYMENT_MODES.length)])
+                .put("createdAt", LocalDate.now().atTime(12, 0).toString());
+        return post("/api/v1/payments", body);
+    }
+
+    private int pickOperation(Random random) {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int op = 0;
+        while (ticket >= cumulativeWeights[op]) {
+            op++;
+        }
+        return op;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(60)).build();
+    }
+
+    private HttpRequest post(String path, ObjectNode body) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private static long pick(Random random, List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    record Stats(String endpoint, long requests, long errors, double throughput, double p50, double p95, double p99) {
+    }
+
+    private record Operation(String name, int weight, Function<Random, HttpRequest> request) {
+    }
+
+    private static final class ClientLog {
+        final LatencyLog[] latencies;
+        final long[] errors;
+
+        ClientLog(int operations) {
+            latencies = new LatencyLog[operations];
+            errors = new long[operations];
+            for (int i = 0; i < operations; i++) {
+                latencies[i] = new LatencyLog();
+            }
+        }
+    }
+}
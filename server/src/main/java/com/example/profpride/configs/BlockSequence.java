@@ -0,0 +1,22 @@
+package com.example.profpride.configs;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates ids from the entity's own sequence, handing out blocks of ids per
+ * database round-trip. See {@link BlockSequenceGenerator} for how block sizes are
+ * configured.
+ */
+@IdGeneratorType(BlockSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface BlockSequence {
+
+    /** Sequence (or sequence table on MySQL) the ids come from. */
+    String name();
+}
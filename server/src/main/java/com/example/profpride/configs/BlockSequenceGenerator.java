@@ -0,0 +1,69 @@
+package com.example.profpride.configs;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Sequence generator whose block size and optimizer come from configuration rather
+ * than from constants in the mapping.
+ *
+ * Each entity draws from its own sequence, so inserts into different tables never
+ * contend on one row, and every round-trip reserves a whole block of ids. Because
+ * every instance reserves its block atomically, concurrent app instances always get
+ * disjoint ids, and Hibernate can batch inserts since ids are known before flush.
+ *
+ * Settings (pass them through spring.jpa.properties.*):
+ *   profpride.id.block-size            default block size for every sequence (50)
+ *   profpride.id.block-size.<sequence> block size for one sequence, e.g. booking_seq
+ *   profpride.id.optimizer             pooled-lo (default) or pooled
+ *
+ * With pooled-lo the stored value is the first id of the next block, so a new block
+ * size never hands out an id twice. Where sequences are emulated with tables (MySQL)
+ * it takes effect on the next start. A native sequence (H2, PostgreSQL) keeps the
+ * INCREMENT BY it was created with, and Hibernate refuses to start while that differs
+ * from the block size: run ALTER SEQUENCE <sequence> INCREMENT BY <size> first. Moving
+ * from pooled-lo back to pooled is not safe on a database that already holds ids.
+ */
+public class BlockSequenceGenerator extends SequenceStyleGenerator
+        implements AnnotationBasedGenerator<BlockSequence> {
+
+    public static final String BLOCK_SIZE = "profpride.id.block-size";
+    public static final String OPTIMIZER = "profpride.id.optimizer";
+
+    private static final int DEFAULT_BLOCK_SIZE = 50;
+    private static final String DEFAULT_OPTIMIZER = "pooled-lo";
+
+    private String sequenceName;
+
+    @Override
+    public void initialize(BlockSequence config, Member member, GeneratorCreationContext context) {
+        this.sequenceName = config.name();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        ConfigurationService settings = serviceRegistry.requireService(ConfigurationService.class);
+        int defaultBlockSize = settings.getSetting(BLOCK_SIZE, StandardConverters.INTEGER, DEFAULT_BLOCK_SIZE);
+        int blockSize = settings.getSetting(BLOCK_SIZE + "." + sequenceName, StandardConverters.INTEGER,
+                defaultBlockSize);
+        if (blockSize < 1) {
+            throw new MappingException("Block size for " + sequenceName + " must be positive");
+        }
+
+        parameters.setProperty(SEQUENCE_PARAM, sequenceName);
+        parameters.setProperty(INCREMENT_PARAM, Integer.toString(blockSize));
+        parameters.setProperty(OptimizableGenerator.OPT_PARAM,
+                settings.getSetting(OPTIMIZER, StandardConverters.STRING, DEFAULT_OPTIMIZER));
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
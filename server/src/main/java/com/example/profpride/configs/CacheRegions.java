@@ -0,0 +1,15 @@
+package com.example.profpride.configs;
+
+/**
+ * Names of the Hibernate second-level cache regions; they must match the region
+ * names in application.conf.
+ */
+public final class CacheRegions {
+
+    public static final String ROOMS = "rooms";
+    public static final String ROOM_COSTS = "roomCosts";
+    public static final String CUSTOMERS = "customers";
+
+    private CacheRegions() {
+    }
+}
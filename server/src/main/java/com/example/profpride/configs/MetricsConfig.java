@@ -0,0 +1,23 @@
+package com.example.profpride.configs;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Service timers. Classes annotated with {@code @Timed(SERVICE_TIMER)} get one timer
+ * per public method, tagged with class, method and exception. Endpoint
+ * (http.server.requests), repository (spring.data.repository.invocations), Hibernate
+ * and Hikari meters come from Spring Boot's auto-configuration.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "profpride.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
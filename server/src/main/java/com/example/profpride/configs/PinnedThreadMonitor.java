@@ -0,0 +1,67 @@
+package com.example.profpride.configs;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Logs virtual threads that stay pinned to their carrier for longer than
+ * {@code profpride.threads.pinned-threshold}, usually because they blocked inside a
+ * synchronized block or a native frame. It listens for the JFR jdk.VirtualThreadPinned
+ * event in-process, so no recording has to be started from outside. It is only
+ * active when the app runs on virtual threads.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinnedThreadMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    private static final int MAX_FRAMES = 12;
+
+    @Value("${profpride.threads.pinned-threshold:20ms}")
+    private Duration threshold;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::report);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String frames = stackTrace == null ? "(no stack trace)" : stackTrace.getFrames().stream()
+                .limit(MAX_FRAMES)
+                .map(PinnedThreadMonitor::describe)
+                .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+        log.warn("Virtual thread pinned for {} ms\n{}", event.getDuration().toMillis(), frames);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.profpride.configs;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The property (hotel) the current thread works for. PropertyFilter sets it from the
+ * X-Property header for each request; background jobs set it around the work they do
+ * for each property. Without one, work goes to the default property.
+ *
+ * Every property lives in its own database: the default one in spring.datasource, the
+ * others listed in profpride.sharding.properties (see PropertyRouting). Hibernate tags
+ * sessions with the property (PropertyTenantResolver), so cached entities, cached
+ * queries and id blocks from one property are never handed to another.
+ *
+ * The names are static per deployment, so they can also key in-memory state such as
+ * OccupancyIndex.
+ */
+@Component
+public class PropertyContext {
+
+    public static final String HEADER = "X-Property";
+    public static final String DEFAULT = "default";
+
+    private static final Pattern NAME = Pattern.compile("[a-z0-9][a-z0-9-]{0,31}");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    @Value("${profpride.sharding.properties:}")
+    private String sharded;
+
+    private List<String> names = List.of(DEFAULT);
+
+    @PostConstruct
+    public void parse() {
+        List<String> parsed = new ArrayList<>();
+        parsed.add(DEFAULT);
+        for (String name : sharded.split(",")) {
+            name = name.strip();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!NAME.matcher(name).matches() || parsed.contains(name)) {
+                throw new IllegalStateException("Invalid or repeated property in profpride.sharding.properties: " + name);
+            }
+            parsed.add(name);
+        }
+        names = Collections.unmodifiableList(parsed);
+    }
+
+    /** The default property first, then the sharded ones in configuration order. */
+    public List<String> names() {
+        return names;
+    }
+
+    public boolean exists(String property) {
+        return names.contains(property);
+    }
+
+    public static String current() {
+        String property = CURRENT.get();
+        return property != null ? property : DEFAULT;
+    }
+
+    /** Switches the current thread to {@code property} until the scope is closed. */
+    public static Scope enter(String property) {
+        String previous = CURRENT.get();
+        CURRENT.set(property);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /** Runs {@code work} once for every property, each time inside that property's scope. */
+    public void forEach(Runnable work) {
+        for (String property : names) {
+            try (Scope scope = enter(property)) {
+                work.run();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.profpride.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs each request for the property named in its X-Property header, or the default
+ * property when there is none. Unknown properties get 400 before anything touches a
+ * database.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PropertyFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private PropertyContext propertyContext;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String property = request.getHeader(PropertyContext.HEADER);
+        if (property == null || property.isBlank()) {
+            property = PropertyContext.DEFAULT;
+        }
+        if (!propertyContext.exists(property)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown property");
+            return;
+        }
+        try (PropertyContext.Scope scope = PropertyContext.enter(property)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
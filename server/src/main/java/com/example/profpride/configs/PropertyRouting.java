@@ -0,0 +1,119 @@
+package com.example.profpride.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One database per property. Without profpride.sharding.properties Spring Boot's own
+ * pool serves the default property as before. With it, each request is routed to its
+ * property's pool:
+ *
+ *   profpride.sharding.properties=north,south
+ *   profpride.sharding.north.url=jdbc:mysql://db-north:3306/profpride
+ *   profpride.sharding.north.username=...   (defaults to spring.datasource.username)
+ *   profpride.sharding.north.password=...   (defaults to spring.datasource.password)
+ *
+ * Every pool takes its settings from spring.datasource.hikari, and every database must
+ * be the same kind as the default one since Hibernate picks its dialect from that.
+ * spring.jpa.hibernate.ddl-auto is applied to every property's database at startup.
+ */
+@Configuration
+public class PropertyRouting {
+
+    private static final String PREFIX = "profpride.sharding.";
+
+    @Autowired
+    private PropertyContext propertyContext;
+
+    @Bean
+    @ConditionalOnProperty(PREFIX + "properties")
+    public PropertyRoutingDataSource dataSource(DataSourceProperties primary, Environment environment,
+            MeterRegistry meterRegistry) {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        for (String property : propertyContext.names()) {
+            HikariDataSource pool;
+            if (property.equals(PropertyContext.DEFAULT)) {
+                // Its metrics are registered by Spring Boot, which finds it by unwrapping.
+                pool = primary.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            } else {
+                pool = DataSourceBuilder.create(getClass().getClassLoader())
+                        .type(HikariDataSource.class)
+                        .url(environment.getRequiredProperty(PREFIX + property + ".url"))
+                        .username(environment.getProperty(PREFIX + property + ".username", primary.determineUsername()))
+                        .password(environment.getProperty(PREFIX + property + ".password", primary.determinePassword()))
+                        .build();
+                pool.setMetricRegistry(meterRegistry);
+            }
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("profpride-" + property);
+            pools.put(property, pool);
+        }
+        return new PropertyRoutingDataSource(pools);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer propertyTenancy() {
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new PropertyTenantResolver());
+            List<String> sharded = propertyContext.names().stream()
+                    .filter(property -> !property.equals(PropertyContext.DEFAULT))
+                    .toList();
+            if (!sharded.isEmpty()) {
+                properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                        (IntegratorProvider) () -> List.of(new ShardSchemas(sharded)));
+            }
+        };
+    }
+
+    /**
+     * Runs the schema action (ddl-auto) against every sharded property's database while
+     * the session factory starts; Hibernate itself only runs it against the default one.
+     * The schema tool takes its connections from the routing data source, so switching
+     * the current property is enough to point it at another database.
+     */
+    private record ShardSchemas(List<String> properties) implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                SessionFactoryImplementor sessionFactory) {
+            ServiceRegistry registry = sessionFactory.getServiceRegistry();
+            Map<String, Object> settings = registry.requireService(ConfigurationService.class).getSettings();
+            for (String property : properties) {
+                try (PropertyContext.Scope scope = PropertyContext.enter(property)) {
+                    // create-drop does not drop the sharded schemas on shutdown.
+                    SchemaManagementToolCoordinator.process(metadata, registry, settings, action -> {
+                    });
+                }
+            }
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry registry) {
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.profpride.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the current property (see PropertyContext).
+ * There is no fallback: a property without a pool is a bug, not a reason to write to
+ * another property's database.
+ */
+public class PropertyRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final Map<String, HikariDataSource> pools;
+
+    public PropertyRoutingDataSource(Map<String, HikariDataSource> pools) {
+        this.pools = pools;
+        setTargetDataSources(new HashMap<>(pools));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return PropertyContext.current();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.profpride.configs;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Opens every Hibernate session for the current property. Hibernate then fills and
+ * filters the property column of PropertyScoped entities and keys the second-level
+ * cache, the query cache and sequence id blocks by it. Registered by PropertyRouting.
+ */
+public class PropertyTenantResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return PropertyContext.current();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return true;
+    }
+}
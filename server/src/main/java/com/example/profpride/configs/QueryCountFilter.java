@@ -0,0 +1,57 @@
+package com.example.profpride.configs;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran, including lazy loads during
+ * serialization, as the profpride.request.queries summary tagged by method and
+ * route. Requests above {@code profpride.query-count.warn-threshold} are logged,
+ * which is usually an N+1. The async half of streamed exports is not counted.
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${profpride.query-count.warn-threshold:50}")
+    private long warnThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCountInspector.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long queries = QueryCountInspector.current();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("profpride.request.queries")
+                    .description("SQL statements per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", route)
+                    .register(meterRegistry)
+                    .record(queries);
+            if (queries > warnThreshold) {
+                log.warn("{} {} ran {} SQL statements", request.getMethod(), route, queries);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.profpride.configs;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts every SQL statement Hibernate prepares, both in total and for the request
+ * running on the current thread. Registered through
+ * hibernate.session_factory.statement_inspector, so Hibernate creates it and the
+ * counters are static.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final AtomicLong TOTAL = new AtomicLong();
+    private static final ThreadLocal<long[]> CURRENT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        TOTAL.incrementAndGet();
+        CURRENT.get()[0]++;
+        return sql;
+    }
+
+    /** Statements prepared since startup, across all threads. */
+    public static long total() {
+        return TOTAL.get();
+    }
+
+    /** Resets the count for the current thread, at the start of a request. */
+    public static void reset() {
+        CURRENT.get()[0] = 0;
+    }
+
+    /** Statements prepared on the current thread since the last {@link #reset()}. */
+    public static long current() {
+        return CURRENT.get()[0];
+    }
+}
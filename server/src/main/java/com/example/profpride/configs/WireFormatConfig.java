@@ -0,0 +1,47 @@
+package com.example.profpride.configs;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary JSON for clients that ask for it. A request with {@code Accept:
+ * application/x-jackson-smile} or {@code application/cbor} gets the same document as
+ * JSON, encoded without repeated field names and with binary numbers; everyone else
+ * keeps getting JSON. Both mappers come from Spring Boot's builder, so they share the
+ * JSON mapper's settings (ISO dates, modules).
+ *
+ * Blackbird replaces Jackson's reflective getter calls with generated lambdas and is
+ * registered on every mapper. Gzip for large text responses is set up in
+ * application.properties (server.compression).
+ */
+@Configuration
+public class WireFormatConfig {
+
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    public static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Same class as the converter Spring MVC would add by default, so this one takes its
+    // place after the JSON converter and plain */* requests still get JSON.
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
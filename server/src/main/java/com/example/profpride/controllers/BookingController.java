@@ -1,15 +1,22 @@
 package com.example.profpride.controllers;
 
+import com.example.profpride.dtos.BookingGrid;
+import com.example.profpride.dtos.CursorPage;
+import com.example.profpride.dtos.PatchResult;
+import com.example.profpride.enums.BookingStatusType;
 import com.example.profpride.models.Booking;
 import com.example.profpride.services.BookingService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/bookings")
@@ -30,6 +37,46 @@ public class BookingController {
         return new ResponseEntity<>(bookings, HttpStatus.OK);
     }
 
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllBookingFields(@RequestParam String fields) {
+        List<Map<String, Object>> bookings = bookingService.getBookingFields(fields);
+        return new ResponseEntity<>(bookings, HttpStatus.OK);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Booking>> getBookingPage(
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) BookingStatusType status,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Booking> page = bookingService.getBookingPage(roomId, customerId, status, sort, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/page", params = "fields")
+    public ResponseEntity<CursorPage<Map<String, Object>>> getBookingFieldPage(
+            @RequestParam String fields,
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) BookingStatusType status,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Map<String, Object>> page = bookingService.getBookingPage(fields, roomId, customerId, status,
+                sort, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping("/grid")
+    public ResponseEntity<BookingGrid> getBookingGrid(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "30") int days) {
+        BookingGrid grid = bookingService.getBookingGrid(from != null ? from : LocalDate.now(), days);
+        return new ResponseEntity<>(grid, HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Booking> getBookingById(@PathVariable Long id) {
         return bookingService.getBookingById(id)
@@ -43,10 +90,16 @@ public class BookingController {
             Booking savedBooking = bookingService.updateBooking(id, updatedBooking);
             return new ResponseEntity<>(savedBooking, HttpStatus.OK);
         } catch (ResponseStatusException e) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            return new ResponseEntity<>(e.getStatusCode());
         }
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<PatchResult> patchBooking(@PathVariable Long id, @RequestBody Map<String, Object> changes) {
+        PatchResult result = bookingService.patchBooking(id, changes);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBooking(@PathVariable Long id) {
         try {
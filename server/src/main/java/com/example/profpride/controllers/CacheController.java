@@ -0,0 +1,54 @@
+package com.example.profpride.controllers;
+
+import com.example.profpride.configs.CacheRegions;
+import com.example.profpride.services.CacheVersionService;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+public class CacheController {
+
+    private static final List<String> REGIONS = List.of(CacheRegions.ROOMS, CacheRegions.ROOM_COSTS, CacheRegions.CUSTOMERS);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheVersionService cacheVersionService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+            if (stats != null) {
+                regions.put(region, Map.of(
+                        "hits", stats.getHitCount(),
+                        "misses", stats.getMissCount(),
+                        "puts", stats.getPutCount()));
+            }
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        body.put("regions", regions);
+        body.put("queries", Map.of(
+                "hits", statistics.getQueryCacheHitCount(),
+                "misses", statistics.getQueryCacheMissCount(),
+                "puts", statistics.getQueryCachePutCount()));
+        body.put("versions", cacheVersionService.getVersions());
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+}
@@ -4,10 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.example.profpride.dtos.CursorPage;
+import com.example.profpride.dtos.PatchResult;
 import com.example.profpride.models.Customer;
 import com.example.profpride.services.CustomerService;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -29,6 +32,33 @@ public class CustomerController {
         return new ResponseEntity<>(customers, HttpStatus.OK);
     }
 
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllCustomerFields(@RequestParam String fields) {
+        List<Map<String, Object>> customers = customerService.getCustomerFields(fields);
+        return new ResponseEntity<>(customers, HttpStatus.OK);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Customer>> getCustomerPage(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Customer> page = customerService.getCustomerPage(name, sort, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/page", params = "fields")
+    public ResponseEntity<CursorPage<Map<String, Object>>> getCustomerFieldPage(
+            @RequestParam String fields,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Map<String, Object>> page = customerService.getCustomerPage(fields, name, sort, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Customer> getCustomerById(@PathVariable Long id) {
         Optional<Customer> customer = customerService.getCustomerById(id);
@@ -43,6 +73,12 @@ public class CustomerController {
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<PatchResult> patchCustomer(@PathVariable Long id, @RequestBody Map<String, Object> changes) {
+        PatchResult result = customerService.patchCustomer(id, changes);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCustomer(@PathVariable Long id) {
         if (customerService.deleteCustomer(id)) {
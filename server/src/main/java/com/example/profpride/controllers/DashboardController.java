@@ -1,12 +1,15 @@
 package com.example.profpride.controllers;
 
+import com.example.profpride.dtos.DashboardSummary;
 import com.example.profpride.models.Booking;
 import com.example.profpride.services.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,15 +19,24 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardSummary> getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        DashboardSummary summary = dashboardService.getSummary(date != null ? date : dashboardService.today());
+        return new ResponseEntity<>(summary, HttpStatus.OK);
+    }
+
     @GetMapping("/arrivals")
-    public ResponseEntity<List<Booking>> getArrivals() {
-        List<Booking> bookings = dashboardService.getArrivals();
+    public ResponseEntity<List<Booking>> getArrivals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        List<Booking> bookings = dashboardService.getArrivals(date != null ? date : dashboardService.today());
         return new ResponseEntity<>(bookings, HttpStatus.OK);
     }
 
     @GetMapping("/departures")
-    public ResponseEntity<List<Booking>> getDepartures() {
-        List<Booking> bookings = dashboardService.getDepartures();
+    public ResponseEntity<List<Booking>> getDepartures(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        List<Booking> bookings = dashboardService.getDepartures(date != null ? date : dashboardService.today());
         return new ResponseEntity<>(bookings, HttpStatus.OK);
     }
 
@@ -0,0 +1,27 @@
+package com.example.profpride.controllers;
+
+import com.example.profpride.services.ChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/events")
+public class EventController {
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    // Browsers resume with the Last-Event-ID header; clients without EventSource can pass lastEventId.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        SseEmitter emitter = changeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.profpride.controllers;
 
+import com.example.profpride.dtos.CursorPage;
+import com.example.profpride.dtos.PatchResult;
 import com.example.profpride.models.Expense;
 import com.example.profpride.services.ExpenseService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -29,6 +34,18 @@ public class ExpenseController {
         return new ResponseEntity<>(expenses, HttpStatus.OK);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Expense>> getExpensePage(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Expense> page = expenseService.getExpensePage(name, from, to, sort, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Expense> getExpenseById(@PathVariable Long id) {
         Optional<Expense> expense = expenseService.getExpenseById(id);
@@ -46,6 +63,12 @@ public class ExpenseController {
         }
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<PatchResult> patchExpense(@PathVariable Long id, @RequestBody Map<String, Object> changes) {
+        PatchResult result = expenseService.patchExpense(id, changes);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteExpense(@PathVariable Long id) {
         boolean isDeleted = expenseService.deleteExpense(id);
@@ -0,0 +1,57 @@
+package com.example.profpride.controllers;
+
+import com.example.profpride.enums.ExportFormat;
+import com.example.profpride.services.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/export")
+public class ExportController {
+
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/bookings")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return download("bookings", format, exportService.exportBookings(format, from, to));
+    }
+
+    @GetMapping("/payments")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return download("payments", format, exportService.exportPayments(format, from, to));
+    }
+
+    @GetMapping("/expenses")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return download("expenses", format, exportService.exportExpenses(format, from, to));
+    }
+
+    private ResponseEntity<StreamingResponseBody> download(String name, ExportFormat format, StreamingResponseBody body) {
+        boolean csv = format == ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.profpride.controllers;
+
+import com.example.profpride.dtos.ImportReport;
+import com.example.profpride.services.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/v1/import")
+public class ImportController {
+
+    private static final String CSV = "text/csv";
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ImportService importService;
+
+    @PostMapping(value = "/customers", consumes = { CSV, NDJSON })
+    public ResponseEntity<ImportReport> importCustomers(InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(required = false) Integer chunkSize) throws IOException {
+        ImportReport report = importService.importCustomers(body, isCsv(contentType), chunkSize);
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/bookings", consumes = { CSV, NDJSON })
+    public ResponseEntity<ImportReport> importBookings(InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(required = false) Integer chunkSize) throws IOException {
+        ImportReport report = importService.importBookings(body, isCsv(contentType), chunkSize);
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/payments", consumes = { CSV, NDJSON })
+    public ResponseEntity<ImportReport> importPayments(InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(required = false) Integer chunkSize) throws IOException {
+        ImportReport report = importService.importPayments(body, isCsv(contentType), chunkSize);
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    private static boolean isCsv(String contentType) {
+        return contentType.startsWith(CSV);
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.profpride.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.example.profpride.dtos.CursorPage;
+import com.example.profpride.dtos.PatchResult;
+import com.example.profpride.enums.PaymentMode;
 import com.example.profpride.models.Payment;
 import com.example.profpride.services.PaymentService;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +38,40 @@ public class PaymentController {
         return new ResponseEntity<>(payments, HttpStatus.OK);
     }
 
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllPaymentFields(@RequestParam String fields) {
+        List<Map<String, Object>> payments = paymentService.getPaymentFields(fields);
+        return new ResponseEntity<>(payments, HttpStatus.OK);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Payment>> getPaymentPage(
+            @RequestParam(required = false) Long bookingId,
+            @RequestParam(required = false) PaymentMode mode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Payment> page = paymentService.getPaymentPage(bookingId, mode, from, to, sort, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/page", params = "fields")
+    public ResponseEntity<CursorPage<Map<String, Object>>> getPaymentFieldPage(
+            @RequestParam String fields,
+            @RequestParam(required = false) Long bookingId,
+            @RequestParam(required = false) PaymentMode mode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<Map<String, Object>> page = paymentService.getPaymentPage(fields, bookingId, mode, from, to,
+                sort, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Payment> getPaymentById(@PathVariable Long id) {
         Optional<Payment> payment = paymentService.getPaymentById(id);
@@ -50,6 +89,12 @@ public class PaymentController {
         }
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<PatchResult> patchPayment(@PathVariable Long id, @RequestBody Map<String, Object> changes) {
+        PatchResult result = paymentService.patchPayment(id, changes);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePayment(@PathVariable Long id) {
         boolean isDeleted = paymentService.deletePayment(id);
@@ -0,0 +1,28 @@
+package com.example.profpride.controllers;
+
+import com.example.profpride.services.ReadModelProjector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/projections")
+public class ProjectionController {
+
+    @Autowired
+    private ReadModelProjector readModelProjector;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return new ResponseEntity<>(readModelProjector.getStatus(), HttpStatus.OK);
+    }
+
+    // One transaction: readers keep seeing the previous read models until the rebuild commits.
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replay() {
+        return new ResponseEntity<>(readModelProjector.replay(), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.profpride.controllers;
+
+import com.example.profpride.dtos.Quote;
+import com.example.profpride.dtos.QuoteRequest;
+import com.example.profpride.services.PricingEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/quotes")
+public class QuoteController {
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    // Up to PricingEngine.MAX_QUOTES stays per call, answered in the same order.
+    @PostMapping
+    public ResponseEntity<List<Quote>> quote(@RequestBody List<QuoteRequest> requests) {
+        return new ResponseEntity<>(pricingEngine.quote(requests), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.profpride.controllers;
+
+import com.example.profpride.dtos.GroupPnlReport;
+import com.example.profpride.dtos.PnlReport;
+import com.example.profpride.enums.RollupPeriod;
+import com.example.profpride.services.ReadModelProjector;
+import com.example.profpride.services.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/reports")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReadModelProjector readModelProjector;
+
+    @GetMapping("/pnl")
+    public ResponseEntity<PnlReport> getPnl(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MONTH") RollupPeriod groupBy) {
+        return new ResponseEntity<>(reportService.getPnl(from, to, groupBy), HttpStatus.OK);
+    }
+
+    // Every property at once, whatever X-Property says.
+    @GetMapping("/pnl/properties")
+    public ResponseEntity<GroupPnlReport> getGroupPnl(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MONTH") RollupPeriod groupBy) {
+        return new ResponseEntity<>(reportService.getGroupPnl(from, to, groupBy), HttpStatus.OK);
+    }
+
+    // Recounts every payment and expense; the report keeps the old totals until it commits.
+    @PostMapping("/pnl/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        return new ResponseEntity<>(readModelProjector.rebuildRevenue(), HttpStatus.OK);
+    }
+}
@@ -1,13 +1,26 @@
 package com.example.profpride.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import com.example.profpride.configs.CacheRegions;
+import com.example.profpride.dtos.CursorPage;
+import com.example.profpride.enums.BathroomType;
+import com.example.profpride.enums.RoomType;
 import com.example.profpride.models.Room;
 import com.example.profpride.repositories.RoomRepository;
+import com.example.profpride.services.KeysetPaginator;
+import com.example.profpride.services.ResponseSnapshots;
+import com.example.profpride.services.RoomService;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/rooms")
@@ -16,6 +29,15 @@ public class RoomController {
     @Autowired
     private RoomRepository roomRepository;
 
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private ResponseSnapshots responseSnapshots;
+
+    @Autowired
+    private RoomService roomService;
+
     @PostMapping
     public ResponseEntity<Room> createRoom(@RequestBody Room room) {
         Room savedRoom = roomRepository.save(room);
@@ -23,9 +45,36 @@ public class RoomController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Room>> getAllRooms() {
-        List<Room> rooms = roomRepository.findAll();
-        return new ResponseEntity<>(rooms, HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllRooms(WebRequest request) {
+        return responseSnapshots.respond(CacheRegions.ROOMS, request, roomRepository::findAll);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Room>> getRoomPage(
+            @RequestParam(required = false) RoomType roomType,
+            @RequestParam(required = false) BathroomType bathroomType,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        List<Specification<Room>> filters = new ArrayList<>();
+        if (roomType != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("roomType"), roomType));
+        }
+        if (bathroomType != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("bathroomType"), bathroomType));
+        }
+        CursorPage<Room> page = keysetPaginator.page(roomRepository, Specification.allOf(filters),
+                sort, Set.of("roomNumber"), cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping("/available")
+    public ResponseEntity<List<Room>> getAvailableRooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) RoomType type,
+            @RequestParam(required = false) BathroomType bathroom) {
+        return new ResponseEntity<>(roomService.getAvailableRooms(from, to, type, bathroom), HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
@@ -1,13 +1,14 @@
 package com.example.profpride.controllers;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.example.profpride.configs.CacheRegions;
 import com.example.profpride.models.RoomCost;
+import com.example.profpride.services.ResponseSnapshots;
 import com.example.profpride.services.RoomCostService;
 
 @RestController
@@ -17,13 +18,16 @@ public class RoomCostController {
     @Autowired
     private final RoomCostService roomCostService;
 
+    @Autowired
+    private ResponseSnapshots responseSnapshots;
+
     public RoomCostController(RoomCostService roomCostService) {
         this.roomCostService = roomCostService;
     }
 
     @GetMapping
-    public List<RoomCost> getAllRoomCosts() {
-        return roomCostService.getAllRoomCosts();
+    public ResponseEntity<byte[]> getAllRoomCosts(WebRequest request) {
+        return responseSnapshots.respond(CacheRegions.ROOM_COSTS, request, roomCostService::getAllRoomCosts);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,41 @@
+package com.example.profpride.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.profpride.models.SeasonalRate;
+import com.example.profpride.services.RoomCostService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/seasonalrates")
+public class SeasonalRateController {
+
+    @Autowired
+    private RoomCostService roomCostService;
+
+    @GetMapping
+    public ResponseEntity<List<SeasonalRate>> getAllSeasonalRates() {
+        return ResponseEntity.ok(roomCostService.getAllSeasonalRates());
+    }
+
+    @PostMapping
+    public ResponseEntity<SeasonalRate> createSeasonalRate(@RequestBody SeasonalRate seasonalRate) {
+        SeasonalRate created = roomCostService.createSeasonalRate(seasonalRate);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<SeasonalRate> updateSeasonalRate(@PathVariable Long id, @RequestBody SeasonalRate seasonalRate) {
+        return ResponseEntity.ok(roomCostService.updateSeasonalRate(id, seasonalRate));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSeasonalRate(@PathVariable Long id) {
+        roomCostService.deleteSeasonalRate(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.profpride.dtos;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.example.profpride.enums.BookingStatusType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Room x day occupancy matrix for a fixed window. Each row only lists its occupied
+ * runs of consecutive nights, so the payload grows with rooms and days rather than
+ * with the number of bookings ever made. Days not covered by a run are empty.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingGrid {
+    private LocalDate from;
+    private int days;
+    private List<Row> rows;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Row {
+        private Long roomId;
+        private String roomNumber;
+        private List<Run> runs;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Run {
+        private int start; // offset in days from "from"
+        private int length;
+        private BookingStatusType status;
+        private String customerName;
+    }
+}
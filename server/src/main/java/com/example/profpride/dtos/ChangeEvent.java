@@ -0,0 +1,18 @@
+package com.example.profpride.dtos;
+
+import com.example.profpride.enums.ChangeAction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Data of one change feed event: which row changed and how. The row itself is not
+ * included; fetch it by id if needed.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangeEvent {
+    private String entity;
+    private ChangeAction action;
+    private Long id;
+}
@@ -0,0 +1,17 @@
+package com.example.profpride.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of a keyset-paginated list. Pass {@code nextCursor} back as
+ * {@code cursor} to fetch the following page; it is null on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
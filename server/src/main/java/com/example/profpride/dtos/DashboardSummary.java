@@ -0,0 +1,24 @@
+package com.example.profpride.dtos;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.example.profpride.models.BookingView;
+import com.example.profpride.models.DailyRevenue;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Everything the dashboard shows for one day, read from the projected read models. It
+ * can trail the latest writes by about a projector interval.
+ */
+@Getter
+@AllArgsConstructor
+public class DashboardSummary {
+    private LocalDate date;
+    private List<BookingView> arrivals;
+    private List<BookingView> departures;
+    private List<BookingView> due;
+    private DailyRevenue revenue;
+}
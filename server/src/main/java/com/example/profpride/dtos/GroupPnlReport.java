@@ -0,0 +1,17 @@
+package com.example.profpride.dtos;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The P&L of every property together: {@code combined} adds up their reports line by
+ * line, and {@code byProperty} keeps each property's own total, in configuration order.
+ */
+@Getter
+@AllArgsConstructor
+public class GroupPnlReport {
+    private PnlReport combined;
+    private Map<String, PnlReport.Line> byProperty;
+}
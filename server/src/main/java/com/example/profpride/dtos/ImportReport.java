@@ -0,0 +1,48 @@
+package com.example.profpride.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a bulk import: how many rows were read and stored, and why the rest
+ * were rejected. Only the first {@link #MAX_ERRORS} errors are listed.
+ */
+@Getter
+public class ImportReport {
+    public static final int MAX_ERRORS = 1000;
+
+    private int received;
+    private int imported;
+    private int rejected;
+    private long elapsedMillis;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public void received(int rows) {
+        received += rows;
+    }
+
+    public void imported(int rows) {
+        imported += rows;
+    }
+
+    public void reject(long line, String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    public void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.profpride.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Answer to a PATCH: the row's new version, to send with the next PATCH of the same
+ * row. The row itself is not read back.
+ */
+@Getter
+@AllArgsConstructor
+public class PatchResult {
+    private Long id;
+    private long version;
+}
@@ -0,0 +1,41 @@
+package com.example.profpride.dtos;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import com.example.profpride.enums.RollupPeriod;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Revenue against expenses from {@code from} to {@code to} (both inclusive, by
+ * createdAt), read from the pnl_rollup read model, so it can trail the latest writes by
+ * about a projector interval. Periods without payments or expenses are left out.
+ */
+@Getter
+@AllArgsConstructor
+public class PnlReport {
+    private LocalDate from;
+    private LocalDate to;
+    private RollupPeriod groupBy;
+    private Line total;
+    private List<Line> periods;
+    private Map<String, Long> revenueByMode; // largest first
+    private Map<String, Long> expensesByName; // largest first, names lower-cased
+
+    @Getter
+    @AllArgsConstructor
+    public static class Line {
+        private LocalDate start; // the day or the first day of the month; null for the total
+        private long revenue;
+        private int paymentCount;
+        private long expenses;
+        private int expenseCount;
+
+        public long getProfit() {
+            return revenue - expenses;
+        }
+    }
+}
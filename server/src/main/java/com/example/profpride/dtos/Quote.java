@@ -0,0 +1,22 @@
+package com.example.profpride.dtos;
+
+import java.time.LocalDate;
+
+import com.example.profpride.enums.BathroomType;
+import com.example.profpride.enums.RoomType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** The price of one QuoteRequest; total is null when the rate card has no cost for the room. */
+@Getter
+@AllArgsConstructor
+public class Quote {
+    private Long roomId;
+    private RoomType roomType;
+    private BathroomType bathroomType;
+    private LocalDate from;
+    private LocalDate to;
+    private int nights;
+    private Long total;
+}
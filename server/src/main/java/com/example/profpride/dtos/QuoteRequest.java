@@ -0,0 +1,25 @@
+package com.example.profpride.dtos;
+
+import java.time.LocalDate;
+
+import com.example.profpride.enums.BathroomType;
+import com.example.profpride.enums.RoomType;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One stay to price: a room by id, or a room type and bathroom type, from check-in day
+ * {@code from} to check-out day {@code to}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class QuoteRequest {
+    private Long roomId;
+    private RoomType roomType;
+    private BathroomType bathroomType;
+    private LocalDate from;
+    private LocalDate to;
+}
@@ -0,0 +1,5 @@
+package com.example.profpride.enums;
+
+public enum ExportFormat {
+    CSV, NDJSON
+}
@@ -1,35 +1,69 @@
 package com.example.profpride.models;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.List;
+import com.example.profpride.configs.BlockSequence;
 import com.example.profpride.enums.BookingDurationType;
 import com.example.profpride.enums.BookingStatusType;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "booking")
-public class Booking {
+@NamedEntityGraph(name = Booking.WITH_PARTIES, attributeNodes = {
+    @NamedAttributeNode("room"),
+    @NamedAttributeNode("customer")
+})
+@NamedEntityGraph(name = Booking.WITH_PAYMENTS, attributeNodes = {
+    @NamedAttributeNode("room"),
+    @NamedAttributeNode("customer"),
+    @NamedAttributeNode("payments")
+})
+@Table(name = "booking", indexes = {
+    @Index(name = "idx_booking_check_in_date", columnList = "check_in_date"),
+    @Index(name = "idx_booking_check_out_date", columnList = "check_out_date"),
+    @Index(name = "idx_booking_balance", columnList = "balance")
+})
+public class Booking extends PropertyScoped {
+  // Fetch plans for BookingRepository: room and customer only, or everything the JSON shows.
+  public static final String WITH_PARTIES = "Booking.withParties";
+  public static final String WITH_PAYMENTS = "Booking.withPayments";
+
   @Id
-  @GeneratedValue(strategy = GenerationType.SEQUENCE)
+  @BlockSequence(name = "booking_seq")
   private Long id;
   private LocalDateTime checkInDate;
   private LocalDateTime checkOutDate;
   private Long dueAmount;
 
+  // Ledger columns, only ever written by the bulk updates in BookingRepository so
+  // that saving a stale Booking cannot overwrite a concurrent payment.
+  @Column(updatable = false)
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Long paidAmount;
+
+  @Column(updatable = false)
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Long balance; // dueAmount - paidAmount
+
   @Enumerated(EnumType.STRING)
   private BookingStatusType bookingStatus;
 
@@ -42,5 +76,13 @@ public class Booking {
   private Customer customer;
 
   @OneToMany(mappedBy = "booking") // a booking can have multiple payments
+  @BatchSize(size = 50) // loaded for up to 50 bookings at once when not fetched by a graph
   private List<Payment> payments;
+
+  // Bumped by every update; PATCH requests must send the version they last read. A
+  // primitive, so references posted as {"id": ...} count as existing rows, not new ones.
+  @Version
+  @ColumnDefault("0")
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private long version;
 }
\ No newline at end of file
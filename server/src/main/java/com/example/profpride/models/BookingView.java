@@ -0,0 +1,45 @@
+package com.example.profpride.models;
+
+import com.example.profpride.enums.BookingStatusType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a booking with its room number and guest copied in, kept by
+ * ReadModelProjector, so dashboard lists are a single-table indexed select.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "booking_view", indexes = {
+    @Index(name = "idx_booking_view_check_in_date", columnList = "check_in_date"),
+    @Index(name = "idx_booking_view_check_out_date", columnList = "check_out_date"),
+    @Index(name = "idx_booking_view_balance", columnList = "balance")
+})
+public class BookingView {
+  @Id
+  private Long bookingId;
+  private Long roomId;
+  private String roomNumber;
+  private Long customerId;
+  private String customerName;
+  private String customerPhoneNumber;
+  private LocalDateTime checkInDate;
+  private LocalDateTime checkOutDate;
+
+  @Enumerated(EnumType.STRING)
+  private BookingStatusType bookingStatus;
+
+  private Long dueAmount;
+  private Long paidAmount;
+  private Long balance;
+}
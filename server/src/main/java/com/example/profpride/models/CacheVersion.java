@@ -0,0 +1,27 @@
+package com.example.profpride.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Change counter per cached region. Every committed write to a cached entity bumps
+ * its region's version, and each instance polls this table to evict regions that
+ * another instance has changed. The version and its time also validate cached HTTP
+ * responses for the region's collection (see ResponseSnapshots).
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "cache_version")
+public class CacheVersion {
+  @Id
+  private String region;
+  private Long version;
+  private Instant modifiedAt;
+}
@@ -1,24 +1,36 @@
 package com.example.profpride.models;
 
+import com.example.profpride.configs.BlockSequence;
+import com.example.profpride.configs.CacheRegions;
+import com.example.profpride.services.CacheInvalidationListener;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CUSTOMERS)
+@EntityListeners(CacheInvalidationListener.class)
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "customer")
-public class Customer {
+@Table(name = "customer", indexes = @Index(name = "idx_customer_name", columnList = "name"))
+public class Customer extends PropertyScoped {
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @BlockSequence(name = "customer_seq")
   private Long id;
   private String name;
   private String phoneNumber;
@@ -28,4 +40,9 @@ public class Customer {
   @OneToMany(mappedBy = "customer")
   @JsonIgnore
   private List<Booking> bookings;
+
+  @Version
+  @ColumnDefault("0")
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private long version;
 }
\ No newline at end of file
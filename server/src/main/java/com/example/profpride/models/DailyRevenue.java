@@ -0,0 +1,29 @@
+package com.example.profpride.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Read model of one day's payments and expenses (by createdAt), kept by
+ * ReadModelProjector.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "daily_revenue")
+public class DailyRevenue {
+  @Id
+  @Column(name = "revenue_day") // DAY is reserved in some databases
+  private LocalDate day;
+  private long revenue;
+  private int paymentCount;
+  private long expenses;
+  private int expenseCount;
+}
@@ -1,25 +1,33 @@
 package com.example.profpride.models;
 
+import com.example.profpride.configs.BlockSequence;
 import java.time.LocalDateTime;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.*;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "expense")
-public class Expense {
+@Table(name = "expense", indexes = @Index(name = "idx_expense_created_at", columnList = "created_at"))
+public class Expense extends PropertyScoped {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @BlockSequence(name = "expense_seq")
     private Long id;
     private String name; // unique - 201A
     private String description;
     private Integer amount;
     private LocalDateTime createdAt;
+
+    @Version
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
 }
\ No newline at end of file
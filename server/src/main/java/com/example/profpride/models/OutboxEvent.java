@@ -0,0 +1,42 @@
+package com.example.profpride.models;
+
+import com.example.profpride.enums.ChangeAction;
+import com.example.profpride.enums.EntityType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A write to a booking, payment, expense or customer, recorded in the transaction that
+ * made it (see Outbox) and drained by ReadModelProjector. The id is assigned by the
+ * database on insert, not taken from an id block, so ids follow insert order across
+ * instances.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "outbox_event")
+public class OutboxEvent {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  private EntityType entity;
+
+  private Long entityId; // null: every row of the entity
+
+  @Enumerated(EnumType.STRING)
+  private ChangeAction action;
+
+  private Instant occurredAt;
+}
@@ -1,14 +1,18 @@
 package com.example.profpride.models;
 
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.*;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
+import com.example.profpride.configs.BlockSequence;
 import com.example.profpride.enums.PaymentMode;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
@@ -18,16 +22,21 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @AllArgsConstructor
 @NoArgsConstructor
 @JsonIgnoreProperties({ "booking" })
-@Table(name = "payment")
-public class Payment {
+@Table(name = "payment", indexes = @Index(name = "idx_payment_created_at", columnList = "created_at"))
+public class Payment extends PropertyScoped {
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @BlockSequence(name = "payment_seq")
   private Long id;
   private Integer amount;
   private LocalDateTime createdAt;
   private PaymentMode mode;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY) // never serialized, so loading it would only cost a select per payment
   @JoinColumn(name = "booking_id", nullable = false)
   private Booking booking;
+
+  @Version
+  @ColumnDefault("0")
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private long version;
 }
@@ -0,0 +1,64 @@
+package com.example.profpride.models;
+
+import com.example.profpride.enums.EntityType;
+import com.example.profpride.enums.RollupPeriod;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Payments of one mode, or expenses of one name, over a day or a calendar month (by
+ * createdAt), kept by ReadModelProjector alongside DailyRevenue. A report over a long
+ * range reads month rows for the whole months and day rows only for the ends.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(PnlRollup.Key.class)
+@Table(name = "pnl_rollup", indexes = @Index(name = "idx_pnl_rollup_start", columnList = "period_start"))
+public class PnlRollup {
+  @Id
+  @Enumerated(EnumType.STRING)
+  private RollupPeriod period;
+
+  @Id
+  @Column(name = "period_start")
+  private LocalDate start; // the day, or the first day of the month
+
+  @Id
+  @Enumerated(EnumType.STRING)
+  private EntityType source;
+
+  @Id
+  private String category; // payment mode or expense name, "" when missing
+
+  private long amount;
+  private int entryCount;
+
+  @JsonIgnore
+  public Key getKey() {
+    return new Key(period, start, source, category);
+  }
+
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class Key implements Serializable {
+    private RollupPeriod period;
+    private LocalDate start;
+    private EntityType source;
+    private String category;
+  }
+}
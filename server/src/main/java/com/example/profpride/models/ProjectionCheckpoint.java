@@ -0,0 +1,30 @@
+package com.example.profpride.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * How far a projection has read the outbox. Every outbox event up to lastEventId is
+ * reflected in the projection's tables, except for ids listed in gaps, which had not
+ * committed when the projection read past them. The row is also the lock that keeps two
+ * instances from projecting at the same time.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "projection_checkpoint")
+public class ProjectionCheckpoint {
+  @Id
+  private String name;
+  private Long lastEventId;
+  @Column(length = 4000)
+  private String gaps; // "from-to@seenAt,..." (see OutboxCursor), null when there are none
+  private Instant updatedAt;
+}
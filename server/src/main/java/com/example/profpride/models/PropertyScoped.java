@@ -0,0 +1,26 @@
+package com.example.profpride.models;
+
+import com.example.profpride.configs.PropertyContext;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+import lombok.Getter;
+
+/**
+ * Rows that belong to one property (hotel). Hibernate fills the column from the
+ * session's property on insert and adds it to every query (see PropertyTenantResolver),
+ * so it is never set or shown through the API. Rows from before the column existed
+ * belong to the default property.
+ */
+@MappedSuperclass
+@Getter
+public abstract class PropertyScoped {
+
+  @TenantId
+  @JsonIgnore
+  @ColumnDefault("'" + PropertyContext.DEFAULT + "'")
+  @Column(name = "property", nullable = false, updatable = false, length = 32)
+  private String property;
+}
@@ -0,0 +1,56 @@
+package com.example.profpride.models;
+
+import com.example.profpride.enums.EntityType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * The day, amount and category a payment or expense was last counted under in
+ * DailyRevenue and PnlRollup. When the row changes or goes away, ReadModelProjector
+ * takes this much back off that day before counting the current values, so projecting
+ * the same row twice changes nothing.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(RevenueEntry.Key.class)
+@Table(name = "revenue_entry")
+public class RevenueEntry {
+  @Id
+  @Enumerated(EnumType.STRING)
+  private EntityType source;
+
+  @Id
+  private Long sourceId;
+
+  @Column(name = "revenue_day")
+  private LocalDate day;
+  private long amount;
+  private String category; // null when counted before PnlRollup existed
+  private Long bookingId; // payments only
+
+  @JsonIgnore
+  public Key getKey() {
+    return new Key(source, sourceId);
+  }
+
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class Key implements Serializable {
+    private EntityType source;
+    private Long sourceId;
+  }
+}
@@ -1,27 +1,35 @@
 package com.example.profpride.models;
 
 import java.util.List;
+import com.example.profpride.configs.BlockSequence;
+import com.example.profpride.configs.CacheRegions;
+import com.example.profpride.services.CacheInvalidationListener;
 import com.example.profpride.enums.BathroomType;
 import com.example.profpride.enums.RoomType;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ROOMS)
+@EntityListeners(CacheInvalidationListener.class)
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "room")
-public class Room {
+public class Room extends PropertyScoped {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @BlockSequence(name = "room_seq")
   private Long id;
   private String roomNumber;
   private RoomType roomType;
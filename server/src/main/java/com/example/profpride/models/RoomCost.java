@@ -1,28 +1,36 @@
 package com.example.profpride.models;
 
+import com.example.profpride.configs.BlockSequence;
+import com.example.profpride.configs.CacheRegions;
+import com.example.profpride.services.CacheInvalidationListener;
 import com.example.profpride.enums.BathroomType;
 import com.example.profpride.enums.BookingDurationType;
 import com.example.profpride.enums.RoomType;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ROOM_COSTS)
+@EntityListeners(CacheInvalidationListener.class)
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "roomcost")
-public class RoomCost {
+public class RoomCost extends PropertyScoped {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @BlockSequence(name = "roomcost_seq")
     private Long id;
     BathroomType bathroomType;
     RoomType roomType;
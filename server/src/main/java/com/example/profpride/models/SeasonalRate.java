@@ -0,0 +1,58 @@
+package com.example.profpride.models;
+
+import com.example.profpride.configs.BlockSequence;
+import com.example.profpride.configs.CacheRegions;
+import com.example.profpride.services.CacheInvalidationListener;
+import com.example.profpride.enums.BathroomType;
+import com.example.profpride.enums.BookingDurationType;
+import com.example.profpride.enums.RoomType;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * A rate that replaces the rate card's cost for the nights from startDate to endDate
+ * (both inclusive), e.g. festival or off-season prices. Type fields left empty apply to
+ * every type. A yearly rate repeats on the same days every year; its dates may run
+ * past the new year. Lives in the rate card's cache region, so writes reprice like a
+ * rate card change (see PricingEngine).
+ */
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ROOM_COSTS)
+@EntityListeners(CacheInvalidationListener.class)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "seasonal_rate")
+public class SeasonalRate extends PropertyScoped {
+  @Id
+  @BlockSequence(name = "seasonal_rate_seq")
+  private Long id;
+  private String name;
+
+  @Enumerated(EnumType.STRING)
+  private RoomType roomType;
+
+  @Enumerated(EnumType.STRING)
+  private BathroomType bathroomType;
+
+  @Enumerated(EnumType.STRING)
+  private BookingDurationType bookingDurationType;
+
+  private LocalDate startDate;
+  private LocalDate endDate;
+  private boolean yearly;
+  private Integer cost; // per night, or per month for MONTHLY like RoomCost.cost
+}
@@ -1,11 +1,162 @@
 package com.example.profpride.repositories;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.example.profpride.enums.BookingStatusType;
 import com.example.profpride.models.Booking;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    // The finders below load bookings the way the API serializes them, room, customer and
+    // payments included, in a single select however many bookings match.
+
+    @EntityGraph(Booking.WITH_PAYMENTS)
+    List<Booking> findAllWithPaymentsBy();
+
+    @EntityGraph(Booking.WITH_PAYMENTS)
+    Optional<Booking> findWithPaymentsById(Long id);
+
+    @EntityGraph(Booking.WITH_PAYMENTS)
+    List<Booking> findByCheckInDateGreaterThanEqualAndCheckInDateLessThan(LocalDateTime start, LocalDateTime end);
+
+    @EntityGraph(Booking.WITH_PAYMENTS)
+    List<Booking> findByCheckOutDateGreaterThanEqualAndCheckOutDateLessThan(LocalDateTime start, LocalDateTime end);
+
+    @EntityGraph(Booking.WITH_PAYMENTS)
+    List<Booking> findByBalanceGreaterThan(Long balance);
+
+    // Room and customer only, for ReadModelProjector.
+
+    @EntityGraph(Booking.WITH_PARTIES)
+    List<Booking> findWithPartiesByIdIn(Collection<Long> ids);
+
+    @EntityGraph(Booking.WITH_PARTIES)
+    List<Booking> findWithPartiesByIdGreaterThanOrderById(Long id, Pageable page);
+
+    @Query("select b.id from Booking b where b.customer.id in :customerIds")
+    List<Long> findIdsByCustomerIdIn(Collection<Long> customerIds);
+
+    // balance is assigned first: MySQL evaluates SET clauses left to right with updated values.
+    @Modifying
+    @Query("update Booking b set b.balance = coalesce(b.dueAmount, 0) - coalesce(b.paidAmount, 0) - :delta, "
+            + "b.paidAmount = coalesce(b.paidAmount, 0) + :delta where b.id = :id")
+    int applyPayment(Long id, long delta);
+
+    /**
+     * Moves the ledger of a payment's booking by the difference between {@code amount}
+     * and the payment's stored amount, provided the payment is still at {@code version}.
+     */
+    @Modifying
+    @Query("update Booking b set "
+            + "b.balance = coalesce(b.dueAmount, 0) - coalesce(b.paidAmount, 0) - :amount "
+            + "+ (select coalesce(p.amount, 0) from Payment p where p.id = :paymentId), "
+            + "b.paidAmount = coalesce(b.paidAmount, 0) + :amount "
+            + "- (select coalesce(p.amount, 0) from Payment p where p.id = :paymentId) "
+            + "where b.id = (select p.booking.id from Payment p where p.id = :paymentId and p.version = :version)")
+    int applyPaymentChange(Long paymentId, long version, long amount);
+
+    @Modifying
+    @Query("update Booking b set b.balance = coalesce(b.dueAmount, 0) - coalesce(b.paidAmount, 0) where b.id = :id")
+    int refreshBalance(Long id);
+
+    /**
+     * Rewrites the ledger columns of every booking whose paid total no longer matches
+     * SUM(payment.amount), in one statement. Returns the number of corrected bookings.
+     */
+    @Modifying
+    @Query("update Booking b set "
+            + "b.balance = coalesce(b.dueAmount, 0) - (select coalesce(sum(p.amount), 0) from Payment p where p.booking = b), "
+            + "b.paidAmount = (select coalesce(sum(p.amount), 0) from Payment p where p.booking = b) "
+            + "where b.paidAmount is null or b.balance is null "
+            + "or b.paidAmount <> (select coalesce(sum(p.amount), 0) from Payment p where p.booking = b) "
+            + "or b.balance <> coalesce(b.dueAmount, 0) - b.paidAmount")
+    int reconcileLedger();
+
+    @Query("select b.id as id, b.room.id as roomId, b.checkInDate as checkInDate, b.checkOutDate as checkOutDate "
+            + "from Booking b where b.bookingStatus is null or b.bookingStatus <> :status")
+    List<StayView> findStaysExcludingStatus(BookingStatusType status);
+
+    @Query("select b.id as id, b.room.id as roomId, b.checkInDate as checkInDate, b.checkOutDate as checkOutDate "
+            + "from Booking b where b.id in :ids and (b.bookingStatus is null or b.bookingStatus <> :status)")
+    List<StayView> findStaysByIdInExcludingStatus(Collection<Long> ids, BookingStatusType status);
+
+    @Query("select b.room.id as roomId, b.checkInDate as checkInDate, b.checkOutDate as checkOutDate, "
+            + "b.bookingStatus as bookingStatus, c.name as customerName "
+            + "from Booking b left join b.customer c "
+            + "where b.checkInDate < :to and b.checkOutDate > :from "
+            + "and (b.bookingStatus is null or b.bookingStatus <> :excluded) "
+            + "order by b.room.id, b.checkInDate")
+    List<GridStayView> findGridStays(LocalDateTime from, LocalDateTime to, BookingStatusType excluded);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("select b.id as id, r.roomNumber as roomNumber, c.name as customerName, b.checkInDate as checkInDate, "
+            + "b.checkOutDate as checkOutDate, b.bookingStatus as bookingStatus, b.dueAmount as dueAmount, "
+            + "b.paidAmount as paidAmount, b.balance as balance "
+            + "from Booking b left join b.room r left join b.customer c "
+            + "where (:from is null or b.checkInDate >= :from) and (:to is null or b.checkInDate < :to) "
+            + "order by b.id")
+    Stream<ExportRow> streamForExport(LocalDateTime from, LocalDateTime to);
+
+    interface StayView {
+        Long getId();
+
+        Long getRoomId();
+
+        LocalDateTime getCheckInDate();
+
+        LocalDateTime getCheckOutDate();
+    }
+
+    interface GridStayView {
+        Long getRoomId();
+
+        LocalDateTime getCheckInDate();
+
+        LocalDateTime getCheckOutDate();
+
+        BookingStatusType getBookingStatus();
+
+        String getCustomerName();
+    }
+
+    interface ExportRow {
+        Long getId();
+
+        String getRoomNumber();
+
+        String getCustomerName();
+
+        LocalDateTime getCheckInDate();
+
+        LocalDateTime getCheckOutDate();
+
+        BookingStatusType getBookingStatus();
+
+        Long getDueAmount();
+
+        Long getPaidAmount();
 
-}
\ No newline at end of file
+        Long getBalance();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.profpride.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.profpride.models.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingViewRepository extends JpaRepository<BookingView, Long> {
+
+    List<BookingView> findByCheckInDateGreaterThanEqualAndCheckInDateLessThan(LocalDateTime start, LocalDateTime end);
+
+    List<BookingView> findByCheckOutDateGreaterThanEqualAndCheckOutDateLessThan(LocalDateTime start, LocalDateTime end);
+
+    List<BookingView> findByBalanceGreaterThan(Long balance);
+}
@@ -0,0 +1,18 @@
+package com.example.profpride.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.profpride.models.CacheVersion;
+
+import java.time.Instant;
+
+@Repository
+public interface CacheVersionRepository extends JpaRepository<CacheVersion, String> {
+
+    @Modifying
+    @Query("update CacheVersion v set v.version = v.version + 1, v.modifiedAt = :now where v.region = :region")
+    int bump(String region, Instant now);
+}
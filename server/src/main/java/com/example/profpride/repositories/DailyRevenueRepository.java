@@ -0,0 +1,12 @@
+package com.example.profpride.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.profpride.models.DailyRevenue;
+
+import java.time.LocalDate;
+
+@Repository
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, LocalDate> {
+}
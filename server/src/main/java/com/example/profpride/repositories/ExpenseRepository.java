@@ -1,12 +1,60 @@
 package com.example.profpride.repositories;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.example.profpride.models.Expense;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense> {
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("select e.id as id, e.name as name, e.description as description, e.amount as amount, e.createdAt as createdAt "
+            + "from Expense e where (:from is null or e.createdAt >= :from) and (:to is null or e.createdAt < :to) "
+            + "order by e.id")
+    Stream<ExportRow> streamForExport(LocalDateTime from, LocalDateTime to);
+
+    // The same columns for ReadModelProjector, by id or by id range.
+
+    @Query("select e.id as id, e.name as name, e.description as description, e.amount as amount, e.createdAt as createdAt "
+            + "from Expense e where e.id in :ids")
+    List<ExportRow> findRowsByIdIn(Collection<Long> ids);
+
+    @Query("select e.id as id, e.name as name, e.description as description, e.amount as amount, e.createdAt as createdAt "
+            + "from Expense e where e.id between :from and :to")
+    List<ExportRow> findRowsBetween(long from, long to);
+
+    @Query("select min(e.id) from Expense e")
+    Long findMinId();
+
+    @Query("select max(e.id) from Expense e")
+    Long findMaxId();
+
+    interface ExportRow {
+        Long getId();
+
+        String getName();
+
+        String getDescription();
+
+        Integer getAmount();
 
-}
\ No newline at end of file
+        LocalDateTime getCreatedAt();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.profpride.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.profpride.models.OutboxEvent;
+
+import java.time.Instant;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    long countByIdGreaterThan(long id);
+
+    @Query("select max(e.id) from OutboxEvent e")
+    Long findLastId();
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id <= :lastEventId and e.occurredAt < :before")
+    int prune(long lastEventId, Instant before);
+}
@@ -1,11 +1,60 @@
 package com.example.profpride.repositories;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.example.profpride.enums.PaymentMode;
 import com.example.profpride.models.Payment;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment> {
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("select p.id as id, p.booking.id as bookingId, p.amount as amount, p.mode as mode, p.createdAt as createdAt "
+            + "from Payment p where (:from is null or p.createdAt >= :from) and (:to is null or p.createdAt < :to) "
+            + "order by p.id")
+    Stream<ExportRow> streamForExport(LocalDateTime from, LocalDateTime to);
+
+    // The same columns for ReadModelProjector, by id or by id range.
+
+    @Query("select p.id as id, p.booking.id as bookingId, p.amount as amount, p.mode as mode, p.createdAt as createdAt "
+            + "from Payment p where p.id in :ids")
+    List<ExportRow> findRowsByIdIn(Collection<Long> ids);
+
+    @Query("select p.id as id, p.booking.id as bookingId, p.amount as amount, p.mode as mode, p.createdAt as createdAt "
+            + "from Payment p where p.id between :from and :to")
+    List<ExportRow> findRowsBetween(long from, long to);
+
+    @Query("select min(p.id) from Payment p")
+    Long findMinId();
+
+    @Query("select max(p.id) from Payment p")
+    Long findMaxId();
+
+    interface ExportRow {
+        Long getId();
+
+        Long getBookingId();
+
+        Integer getAmount();
+
+        PaymentMode getMode();
 
-}
\ No newline at end of file
+        LocalDateTime getCreatedAt();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.profpride.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.profpride.enums.RollupPeriod;
+import com.example.profpride.models.PnlRollup;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PnlRollupRepository extends JpaRepository<PnlRollup, PnlRollup.Key> {
+
+    List<PnlRollup> findByPeriodAndStartBetween(RollupPeriod period, LocalDate from, LocalDate to);
+
+    // Day and month rows alike; callers pick theirs by key.
+    List<PnlRollup> findByStartIn(Collection<LocalDate> starts);
+}
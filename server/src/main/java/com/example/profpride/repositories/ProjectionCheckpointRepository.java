@@ -0,0 +1,28 @@
+package com.example.profpride.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.profpride.models.ProjectionCheckpoint;
+
+import jakarta.persistence.LockModeType;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface ProjectionCheckpointRepository extends JpaRepository<ProjectionCheckpoint, String> {
+
+    /** Reads the checkpoint and holds its row lock until the transaction ends. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from ProjectionCheckpoint c where c.name = :name")
+    Optional<ProjectionCheckpoint> lock(String name);
+
+    @Modifying
+    @Query("update ProjectionCheckpoint c set c.lastEventId = :lastEventId, c.gaps = :gaps, c.updatedAt = :now "
+            + "where c.name = :name")
+    int advance(String name, long lastEventId, String gaps, Instant now);
+}
@@ -0,0 +1,18 @@
+package com.example.profpride.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.profpride.enums.EntityType;
+import com.example.profpride.models.RevenueEntry;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RevenueEntryRepository extends JpaRepository<RevenueEntry, RevenueEntry.Key> {
+
+    List<RevenueEntry> findBySourceAndSourceIdIn(EntityType source, Collection<Long> sourceIds);
+
+    boolean existsByCategoryIsNull();
+}
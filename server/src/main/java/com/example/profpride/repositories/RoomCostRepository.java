@@ -1,11 +1,20 @@
 package com.example.profpride.repositories;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.example.profpride.models.RoomCost;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.List;
+
 @Repository
 public interface RoomCostRepository extends JpaRepository<RoomCost, Long> {
 
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<RoomCost> findAll();
 }
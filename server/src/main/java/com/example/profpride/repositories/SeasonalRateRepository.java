@@ -0,0 +1,20 @@
+package com.example.profpride.repositories;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.example.profpride.models.SeasonalRate;
+
+import jakarta.persistence.QueryHint;
+
+import java.util.List;
+
+@Repository
+public interface SeasonalRateRepository extends JpaRepository<SeasonalRate, Long> {
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<SeasonalRate> findAll();
+}
@@ -1,25 +1,55 @@
 package com.example.profpride.services;
 
-import com.example.profpride.enums.BookingDurationType;
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.dtos.BookingGrid;
+import com.example.profpride.dtos.CursorPage;
+import com.example.profpride.dtos.PatchResult;
+import com.example.profpride.enums.BookingStatusType;
+import com.example.profpride.enums.ChangeAction;
+import com.example.profpride.enums.EntityType;
 import com.example.profpride.models.Booking;
 import com.example.profpride.models.Customer;
 import com.example.profpride.models.Room;
-import com.example.profpride.models.RoomCost;
 import com.example.profpride.repositories.BookingRepository;
 import com.example.profpride.repositories.CustomerRepository;
 import com.example.profpride.repositories.RoomRepository;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class BookingService {
 
+    private static final int MAX_GRID_DAYS = 366;
+    private static final Set<String> PAGE_SORTS = Set.of("checkInDate", "checkOutDate");
+
+    /** Fields a client may pick with {@code fields=} on the booking list endpoints. */
+    public static final Set<String> FIELDS = Set.of("id", "checkInDate", "checkOutDate", "dueAmount", "paidAmount",
+            "balance", "bookingStatus", "room.id", "room.roomNumber", "room.roomType", "room.bathroomType",
+            "customer.id", "customer.name", "customer.phoneNumber", "customer.email");
+
+    /**
+     * Fields PATCH may change. Dates and room stay with PUT, which checks that the room
+     * is free; so does reinstating a cancelled booking.
+     */
+    public static final Set<String> PATCH_FIELDS = Set.of("bookingStatus", "dueAmount");
+
     @Autowired
     private BookingRepository bookingRepository;
 
@@ -30,42 +60,134 @@ public class BookingService {
     private CustomerRepository customerRepository;
 
     @Autowired
-    private RoomCostService roomCostService;
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private FieldProjection fieldProjection;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Autowired
+    private ChangeFeed changeFeed;
 
+    @Autowired
+    private Outbox outbox;
+
+    @Transactional
     public Booking createBooking(Booking booking) {
-        // Calculate the number of days the guest stays
-        int days = booking.getCheckOutDate().getDayOfYear() - booking.getCheckInDate().getDayOfYear();
-
-        List<RoomCost> roomCostList = roomCostService.getAllRoomCosts();
-        int roomCost = 0;
-        // traverse the roomCostList and verify the conditions match based on the
-        // RoomType,
-        // BathroomType, and BookingDurationType
-        for (RoomCost cost : roomCostList) {
-            if (cost.getRoomType().equals(booking.getRoom().getRoomType()) &&
-                    cost.getBathroomType().equals(booking.getRoom().getBathroomType())) {
-                if (days > 30 && cost.getBookingDurationType().equals(BookingDurationType.MONTHLY)) {
-                    roomCost = days * cost.getCost();
-                    break;
-                } else if (days < 30 && cost.getBookingDurationType().equals(BookingDurationType.DAILY)) {
-                    roomCost = cost.getCost();
-                    break;
-                }
-            }
+        if (booking.getRoom() == null || booking.getRoom().getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Room is required");
         }
-        booking.setDueAmount((long) (roomCost * days));
-        return bookingRepository.save(booking);
+        checkStay(booking.getCheckInDate(), booking.getCheckOutDate());
+        // Priced from the stored room, not the types the client sent along with its id.
+        Room room = roomRepository.findById(booking.getRoom().getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Room ID"));
+        booking.setRoom(room);
+
+        // A same-day stay is priced as the one night the occupancy index books for it.
+        long checkIn = booking.getCheckInDate().toLocalDate().toEpochDay();
+        long price = pricingEngine.price(room.getRoomType(), room.getBathroomType(), checkIn,
+                Math.max(booking.getCheckOutDate().toLocalDate().toEpochDay(), checkIn + 1));
+        // Without a rate for the room type the front desk sets the amount, as before.
+        booking.setDueAmount(price == PricingEngine.UNPRICED ? 0L : price);
+        booking.setPaidAmount(0L);
+        booking.setBalance(booking.getDueAmount());
+        Booking saved = occupancyIndex.reserve(booking, () -> bookingRepository.save(booking));
+        outbox.record(EntityType.BOOKING, ChangeAction.CREATED, saved.getId());
+        changeFeed.publish(ChangeFeed.BOOKING, ChangeAction.CREATED, saved.getId());
+        return saved;
     }
 
     public List<Booking> getAllBookings() {
-        return bookingRepository.findAll();
+        return bookingRepository.findAllWithPaymentsBy();
+    }
+
+    public List<Map<String, Object>> getBookingFields(String fields) {
+        return fieldProjection.select(Booking.class, FieldProjection.parse(fields, FIELDS), null,
+                Sort.by("id"), 0);
+    }
+
+    public CursorPage<Booking> getBookingPage(Long roomId, Long customerId, BookingStatusType status,
+            String sort, String cursor, Integer size) {
+        // Payments follow in one batched select (see Booking.payments), not one per booking.
+        return keysetPaginator.page(bookingRepository, filter(roomId, customerId, status),
+                sort, PAGE_SORTS, cursor, size, "room", "customer");
+    }
+
+    public CursorPage<Map<String, Object>> getBookingPage(String fields, Long roomId, Long customerId,
+            BookingStatusType status, String sort, String cursor, Integer size) {
+        return keysetPaginator.page(Booking.class, FieldProjection.parse(fields, FIELDS),
+                filter(roomId, customerId, status), sort, PAGE_SORTS, cursor, size);
+    }
+
+    /** Rejects a stay missing a date or checking out before the day it checks in. */
+    static void checkStay(LocalDateTime checkInDate, LocalDateTime checkOutDate) {
+        if (checkInDate == null || checkOutDate == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "checkInDate and checkOutDate are required");
+        }
+        // Nights are whole days, so only the dates count: a stay may leave earlier in the day it arrives.
+        if (checkOutDate.toLocalDate().isBefore(checkInDate.toLocalDate())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "checkOutDate is before checkInDate");
+        }
+    }
+
+    private static Specification<Booking> filter(Long roomId, Long customerId, BookingStatusType status) {
+        List<Specification<Booking>> filters = new ArrayList<>();
+        if (roomId != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("room").get("id"), roomId));
+        }
+        if (customerId != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("customer").get("id"), customerId));
+        }
+        if (status != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("bookingStatus"), status));
+        }
+        return Specification.allOf(filters);
+    }
+
+    public BookingGrid getBookingGrid(LocalDate from, int days) {
+        if (days < 1 || days > MAX_GRID_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be between 1 and " + MAX_GRID_DAYS);
+        }
+        long firstDay = from.toEpochDay();
+        List<BookingRepository.GridStayView> stays = bookingRepository.findGridStays(
+                from.atStartOfDay(), from.plusDays(days).atStartOfDay(), BookingStatusType.CANCELLED);
+
+        Map<Long, List<BookingGrid.Run>> runsByRoom = new HashMap<>();
+        for (BookingRepository.GridStayView stay : stays) {
+            long checkIn = stay.getCheckInDate().toLocalDate().toEpochDay();
+            long checkOut = Math.max(stay.getCheckOutDate().toLocalDate().toEpochDay(), checkIn + 1);
+            int start = (int) Math.max(checkIn - firstDay, 0);
+            int end = (int) Math.min(checkOut - firstDay, days);
+            if (end <= start) {
+                continue;
+            }
+            runsByRoom.computeIfAbsent(stay.getRoomId(), id -> new ArrayList<>())
+                    .add(new BookingGrid.Run(start, end - start, stay.getBookingStatus(), stay.getCustomerName()));
+        }
+
+        List<BookingGrid.Row> rows = new ArrayList<>();
+        for (Room room : roomRepository.findAll()) {
+            rows.add(new BookingGrid.Row(room.getId(), room.getRoomNumber(),
+                    runsByRoom.getOrDefault(room.getId(), List.of())));
+        }
+        return new BookingGrid(from, days, rows);
     }
 
     public Optional<Booking> getBookingById(Long id) {
-        return bookingRepository.findById(id);
+        return bookingRepository.findWithPaymentsById(id);
     }
 
+    @Transactional
     public Booking updateBooking(Long id, Booking updatedBooking) {
+        checkStay(updatedBooking.getCheckInDate(), updatedBooking.getCheckOutDate());
         return bookingRepository.findById(id).map(booking -> {
             // Update booking details
             booking.setBookingStatus(updatedBooking.getBookingStatus());
@@ -89,13 +211,56 @@ public class BookingService {
                 booking.setCustomer(newCustomer);
             }
 
-            return bookingRepository.save(booking);
+            Booking saved = occupancyIndex.reserve(booking, () -> bookingRepository.save(booking));
+            // The ledger columns are not updatable through the entity, so recompute the
+            // balance in the database and mirror it on the returned booking.
+            bookingRepository.refreshBalance(saved.getId());
+            saved.setBalance(valueOrZero(saved.getDueAmount()) - valueOrZero(saved.getPaidAmount()));
+            outbox.record(EntityType.BOOKING, ChangeAction.UPDATED, saved.getId());
+            changeFeed.publish(ChangeFeed.BOOKING, ChangeAction.UPDATED, saved.getId());
+            return saved;
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Booking not found"));
     }
 
+    @Transactional
+    public PatchResult patchBooking(Long id, Map<String, Object> changes) {
+        PartialUpdater.Patch<Booking> patch = partialUpdater.parse(Booking.class, id, changes, PATCH_FIELDS);
+
+        PartialUpdater.Extra<Booking> balance = null;
+        if (patch.has("dueAmount")) {
+            long due = valueOrZero((Long) patch.get("dueAmount"));
+            balance = (update, root, cb) -> update.set(root.<Long>get("balance"),
+                    cb.diff(cb.literal(due), cb.coalesce(root.<Long>get("paidAmount"), 0L)));
+        }
+
+        BookingStatusType status = (BookingStatusType) patch.get("bookingStatus");
+        PartialUpdater.Guard<Booking> notCancelled = null;
+        if (patch.has("bookingStatus") && status != BookingStatusType.CANCELLED) {
+            notCancelled = new PartialUpdater.Guard<>("Booking is cancelled; reinstate it with PUT",
+                    (root, cb) -> cb.or(cb.isNull(root.get("bookingStatus")),
+                            cb.notEqual(root.get("bookingStatus"), BookingStatusType.CANCELLED)));
+        }
+
+        PatchResult result = partialUpdater.apply(patch, balance, notCancelled);
+        if (status == BookingStatusType.CANCELLED) {
+            occupancyIndex.release(id);
+        }
+        outbox.record(EntityType.BOOKING, ChangeAction.UPDATED, id);
+        changeFeed.publish(ChangeFeed.BOOKING, ChangeAction.UPDATED, id);
+        return result;
+    }
+
+    @Transactional
     public void deleteBooking(Long id) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Booking not found"));
         bookingRepository.delete(booking);
+        occupancyIndex.release(booking.getId());
+        outbox.record(EntityType.BOOKING, ChangeAction.DELETED, booking.getId());
+        changeFeed.publish(ChangeFeed.BOOKING, ChangeAction.DELETED, booking.getId());
+    }
+
+    private static long valueOrZero(Long value) {
+        return value != null ? value : 0L;
     }
 }
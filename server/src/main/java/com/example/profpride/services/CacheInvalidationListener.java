@@ -0,0 +1,31 @@
+package com.example.profpride.services;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.annotations.Cache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotationUtils;
+
+/**
+ * Entity listener for cached entities; reports every write to the entity's cache
+ * region so other instances evict their copies.
+ */
+public class CacheInvalidationListener {
+
+    // Listeners are created while the EntityManagerFactory is being built, before the
+    // service (which needs that factory) can exist, so resolve it on first use.
+    @Autowired
+    private ObjectProvider<CacheVersionService> cacheVersionService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        Cache cache = AnnotationUtils.findAnnotation(entity.getClass(), Cache.class);
+        if (cache != null && !cache.region().isEmpty()) {
+            cacheVersionService.getObject().changed(cache.region());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.profpride.services;
+
+import com.example.profpride.configs.CacheRegions;
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.configs.PropertyContext;
+import com.example.profpride.models.CacheVersion;
+import com.example.profpride.models.Customer;
+import com.example.profpride.models.Room;
+import com.example.profpride.models.RoomCost;
+import com.example.profpride.models.SeasonalRate;
+import com.example.profpride.repositories.CacheVersionRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps second-level cache regions consistent across app instances.
+ *
+ * A committed write to a cached entity bumps its region's row in cache_version. Every
+ * instance polls that table and evicts the entity data and cached queries of any
+ * region whose version moved since the last poll, so a node serves stale rooms or
+ * rate cards for at most one poll interval.
+ *
+ * Each property has its own cache_version table in its own database and its own
+ * versions here. Hibernate cannot evict one property's entries, so a change to a
+ * property evicts the region for all of them.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class CacheVersionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheVersionService.class);
+
+    private static final Map<String, List<Class<?>>> REGIONS = Map.of(
+            CacheRegions.ROOMS, List.of(Room.class),
+            CacheRegions.ROOM_COSTS, List.of(RoomCost.class, SeasonalRate.class),
+            CacheRegions.CUSTOMERS, List.of(Customer.class));
+
+    @Autowired
+    private CacheVersionRepository cacheVersionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PropertyContext propertyContext;
+
+    private final TransactionTemplate newTransaction;
+    private final Map<String, Map<String, Stamp>> stamps = new ConcurrentHashMap<>();
+
+    public CacheVersionService(PlatformTransactionManager transactionManager) {
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerRegions() {
+        propertyContext.forEach(() -> {
+            for (String region : REGIONS.keySet()) {
+                try {
+                    newTransaction.executeWithoutResult(tx -> {
+                        if (!cacheVersionRepository.existsById(region)) {
+                            cacheVersionRepository.save(new CacheVersion(region, 0L, now()));
+                        }
+                    });
+                } catch (DataIntegrityViolationException e) {
+                    // another instance created the row first
+                }
+            }
+        });
+        poll();
+    }
+
+    /** The current property's versions. */
+    public Map<String, Long> getVersions() {
+        Map<String, Long> versions = new HashMap<>();
+        stamps().forEach((region, stamp) -> versions.put(region, stamp.version()));
+        return versions;
+    }
+
+    /** The current property's version of the region, or null before the first poll. */
+    public Stamp getStamp(String region) {
+        return stamps().get(region);
+    }
+
+    /**
+     * Records that an entity in {@code region} changed. Inside a transaction the bump
+     * happens once per region after commit; otherwise it happens right away.
+     */
+    public void changed(String region) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(region);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> regions = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, regions);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    regions.forEach(CacheVersionService.this::bump);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheVersionService.this);
+                }
+            });
+            pending = regions;
+        }
+        pending.add(region);
+    }
+
+    @Scheduled(fixedDelayString = "${profpride.cache.poll-interval-ms:5000}")
+    public void poll() {
+        propertyContext.forEach(() -> {
+            for (CacheVersion current : cacheVersionRepository.findAll()) {
+                Stamp known = stamps().get(current.getRegion());
+                if (known != null && known.version() < current.getVersion()) {
+                    evict(current.getRegion());
+                }
+                // Only after the eviction, so the new version is never paired with stale data.
+                record(current);
+            }
+        });
+    }
+
+    private void bump(String region) {
+        CacheVersion version = newTransaction.execute(tx -> {
+            cacheVersionRepository.bump(region, now());
+            return cacheVersionRepository.findById(region).orElse(null);
+        });
+        if (version != null) {
+            // Our own cache already reflects this write, so it is not evicted on the next poll.
+            // Unless another instance bumped since we last looked: then its change is not in
+            // our cache either, and recording the new version would hide it from poll().
+            Stamp known = stamps().get(region);
+            if (known == null || version.getVersion() != known.version() + 1) {
+                evict(region);
+            }
+            record(version);
+        }
+    }
+
+    private void record(CacheVersion current) {
+        Stamp stamp = new Stamp(current.getVersion(), current.getModifiedAt());
+        stamps().merge(current.getRegion(), stamp, (known, next) -> next.version() > known.version() ? next : known);
+    }
+
+    private Map<String, Stamp> stamps() {
+        return stamps.computeIfAbsent(PropertyContext.current(), property -> new ConcurrentHashMap<>());
+    }
+
+    // HTTP dates have whole seconds; keeping the same precision makes If-Modified-Since exact.
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private void evict(String region) {
+        List<Class<?>> entities = REGIONS.get(region);
+        if (entities == null) {
+            return;
+        }
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        entities.forEach(cache::evictEntityData);
+        cache.evictQueryRegions();
+        log.info("Evicted cache region {} after a change to property {} on another instance", region,
+                PropertyContext.current());
+    }
+
+    /** A region's version and when it was bumped; modifiedAt is null for rows from before it existed. */
+    public record Stamp(long version, Instant modifiedAt) {
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.profpride.services;
+
+import com.example.profpride.configs.PropertyContext;
+import com.example.profpride.dtos.ChangeEvent;
+import com.example.profpride.enums.ChangeAction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed booking, payment and customer changes to open clients over
+ * Server-Sent Events, so dashboards can refresh what changed instead of polling.
+ *
+ * Writers call publish(); inside a transaction the event goes out after commit and is
+ * dropped on rollback. The broadcaster numbers each event and offers it to every
+ * subscriber's bounded queue without blocking, and a small pool of sender threads
+ * drains the queues, so a slow client never holds up a write or the other clients. A
+ * client whose queue fills up is disconnected. EventSource then reconnects with
+ * Last-Event-ID and gets the events it missed from the last replay-size events; a
+ * client too far behind, or with an id from before a restart, gets a "reset" event and
+ * reloads its lists instead.
+ *
+ * A payment event also means its booking's paid amount and balance may have changed.
+ * Each instance only publishes writes made through it. A client only hears about, and
+ * replays, changes to the property it subscribed for; ids are shared by all properties.
+ */
+@Component
+public class ChangeFeed {
+
+    public static final String BOOKING = "booking";
+    public static final String PAYMENT = "payment";
+    public static final String CUSTOMER = "customer";
+    public static final String RESET = "reset";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${profpride.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${profpride.events.replay-size:1024}")
+    private int replaySize;
+
+    @Value("${profpride.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${profpride.events.senders:4}")
+    private int senders;
+
+    // Event ids are "<epoch>-<seq>"; a new epoch per start tells ids from a previous run apart.
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Guards recent and lastSeq. Publishers run on request threads, which may be virtual,
+    // and a ReentrantLock lets a waiting one unmount where synchronized would pin it.
+    private final ReentrantLock recentLock = new ReentrantLock();
+    private final ArrayDeque<Frame> recent = new ArrayDeque<>();
+    private long lastSeq;
+
+    private ExecutorService senderPool;
+    private Counter dropped;
+
+    @PostConstruct
+    public void start() {
+        senderPool = Executors.newFixedThreadPool(senders,
+                Thread.ofPlatform().name("change-feed-", 1).daemon().factory());
+        Gauge.builder("profpride.events.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(meterRegistry);
+        dropped = Counter.builder("profpride.events.dropped")
+                .description("Change feed clients disconnected because their buffer was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(Subscriber::close);
+        senderPool.shutdownNow();
+    }
+
+    /**
+     * Announces that a row changed. Inside a transaction the event is sent after commit,
+     * in the order published; otherwise it is sent right away.
+     */
+    public void publish(String entity, ChangeAction action, Long id) {
+        afterCommit(entity, new ChangeEvent(entity, action, id));
+    }
+
+    /** Tells every client to reload, for writes too broad to describe row by row. */
+    public void reset() {
+        afterCommit(RESET, null);
+    }
+
+    private void afterCommit(String name, ChangeEvent event) {
+        String property = PropertyContext.current();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            broadcast(property, name, event);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Frame> pending = (List<Frame>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Frame> frames = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, frames);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    frames.forEach(frame -> broadcast(frame.property(), frame.name(), frame.event()));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeed.this);
+                }
+            });
+            pending = frames;
+        }
+        // Numbered when broadcast.
+        pending.add(new Frame(0, property, name, event));
+    }
+
+    /**
+     * Opens a feed. With the id of the last event the client saw, the events since then
+     * are sent first; without one, or when they are no longer known, the feed starts with
+     * a reset.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        Subscriber subscriber = new Subscriber(PropertyContext.current(), new SseEmitter(timeoutMs),
+                new ArrayBlockingQueue<>(bufferSize));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(error -> subscriber.close());
+        recentLock.lock();
+        try {
+            List<Frame> missed = missedSince(subscriber.property, lastEventId);
+            // The queue is empty and larger than what is queued here, so nothing overflows.
+            if (missed == null || missed.size() >= bufferSize) {
+                subscriber.enqueue(new Frame(lastSeq, subscriber.property, RESET, null));
+            } else {
+                missed.forEach(subscriber::enqueue);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            recentLock.unlock();
+        }
+        return subscriber.emitter;
+    }
+
+    // Keeps idle connections from being closed by proxies and finds clients that went away.
+    @Scheduled(fixedDelayString = "${profpride.events.heartbeat-ms:20000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(Frame.HEARTBEAT));
+    }
+
+    private void broadcast(String property, String name, ChangeEvent event) {
+        List<Subscriber> overflowed = new ArrayList<>();
+        recentLock.lock();
+        try {
+            Frame frame = new Frame(++lastSeq, property, name, event);
+            recent.addLast(frame);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            // Queueing under the lock keeps every queue in sequence order; it never blocks.
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.property.equals(property) && !subscriber.enqueue(frame)) {
+                    overflowed.add(subscriber);
+                }
+            }
+        } finally {
+            recentLock.unlock();
+        }
+        // Completing an emitter goes through the servlet container, so not under the lock.
+        overflowed.forEach(Subscriber::drop);
+    }
+
+    /**
+     * The frames of {@code property} after {@code lastEventId}, or null when they cannot
+     * be replayed.
+     */
+    private List<Frame> missedSince(String property, String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(epoch + "-")) {
+            return null;
+        }
+        long seen;
+        try {
+            seen = Long.parseLong(lastEventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = recent.isEmpty() ? lastSeq + 1 : recent.getFirst().seq();
+        if (seen > lastSeq || seen < oldest - 1) {
+            return null;
+        }
+        List<Frame> missed = new ArrayList<>();
+        for (Frame frame : recent) {
+            if (frame.seq() > seen && frame.property().equals(property)) {
+                missed.add(frame);
+            }
+        }
+        return missed;
+    }
+
+    private final class Subscriber {
+        private final String property;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Frame> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(String property, SseEmitter emitter, BlockingQueue<Frame> queue) {
+            this.property = property;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void offer(Frame frame) {
+            if (!enqueue(frame)) {
+                drop();
+            }
+        }
+
+        /** Queues the frame for the senders; false when the queue is full. */
+        boolean enqueue(Frame frame) {
+            if (!queue.offer(frame)) {
+                return false;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senderPool.execute(this::drain);
+            }
+            return true;
+        }
+
+        // Too far behind: let it reconnect and catch up from the replay buffer.
+        void drop() {
+            dropped.increment();
+            close();
+        }
+
+        private void drain() {
+            try {
+                Frame frame;
+                while ((frame = queue.poll()) != null) {
+                    emitter.send(frame.heartbeat()
+                            ? SseEmitter.event().comment("")
+                            : SseEmitter.event().id(epoch + "-" + frame.seq()).name(frame.name())
+                                    .data(frame.event() != null ? frame.event() : ""));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed.
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // A frame offered after the last poll but before draining was cleared.
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senderPool.execute(this::drain);
+            }
+        }
+
+        void close() {
+            subscribers.remove(this);
+            queue.clear();
+            emitter.complete();
+        }
+    }
+
+    private record Frame(long seq, String property, String name, ChangeEvent event) {
+        static final Frame HEARTBEAT = new Frame(-1, null, null, null);
+
+        boolean heartbeat() {
+            return this == HEARTBEAT;
+        }
+    }
+}
@@ -1,43 +1,122 @@
 package com.example.profpride.services;
 
+import com.example.profpride.configs.CacheRegions;
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.dtos.CursorPage;
+import com.example.profpride.dtos.PatchResult;
+import com.example.profpride.enums.ChangeAction;
+import com.example.profpride.enums.EntityType;
 import com.example.profpride.models.Customer;
 import com.example.profpride.repositories.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class CustomerService {
 
+    /** Fields a client may pick with {@code fields=} on the customer list endpoints. */
+    public static final Set<String> FIELDS = Set.of("id", "name", "phoneNumber", "email", "documentsFolderLink");
+
+    public static final Set<String> PATCH_FIELDS = Set.of("name", "phoneNumber", "email", "documentsFolderLink");
+
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private FieldProjection fieldProjection;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Autowired
+    private CacheVersionService cacheVersionService;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private Outbox outbox;
+
     public Customer createCustomer(Customer customer) {
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        changeFeed.publish(ChangeFeed.CUSTOMER, ChangeAction.CREATED, saved.getId());
+        return saved;
     }
 
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
 
+    public List<Map<String, Object>> getCustomerFields(String fields) {
+        return fieldProjection.select(Customer.class, FieldProjection.parse(fields, FIELDS), null,
+                Sort.by("id"), 0);
+    }
+
+    public CursorPage<Customer> getCustomerPage(String name, String sort, String cursor, Integer size) {
+        return keysetPaginator.page(customerRepository, filter(name), sort, Set.of("name"), cursor, size);
+    }
+
+    public CursorPage<Map<String, Object>> getCustomerPage(String fields, String name, String sort, String cursor,
+            Integer size) {
+        return keysetPaginator.page(Customer.class, FieldProjection.parse(fields, FIELDS), filter(name),
+                sort, Set.of("name"), cursor, size);
+    }
+
+    private static Specification<Customer> filter(String name) {
+        List<Specification<Customer>> filters = new ArrayList<>();
+        if (name != null && !name.isBlank()) {
+            filters.add((root, query, cb) -> cb.like(root.get("name"), name + "%"));
+        }
+        return Specification.allOf(filters);
+    }
+
     public Optional<Customer> getCustomerById(Long id) {
         return customerRepository.findById(id);
     }
 
+    @Transactional
     public Optional<Customer> updateCustomer(Long id, Customer updatedCustomer) {
         return customerRepository.findById(id).map(customer -> {
             customer.setName(updatedCustomer.getName());
             customer.setEmail(updatedCustomer.getEmail());
             customer.setPhoneNumber(updatedCustomer.getPhoneNumber());
             customer.setDocumentsFolderLink(updatedCustomer.getDocumentsFolderLink());
-            return customerRepository.save(customer);
+            Customer saved = customerRepository.save(customer);
+            // Booking views copy the guest's name and phone number.
+            outbox.record(EntityType.CUSTOMER, ChangeAction.UPDATED, id);
+            changeFeed.publish(ChangeFeed.CUSTOMER, ChangeAction.UPDATED, id);
+            return saved;
         });
     }
 
+    @Transactional
+    public PatchResult patchCustomer(Long id, Map<String, Object> changes) {
+        PatchResult result = partialUpdater.apply(partialUpdater.parse(Customer.class, id, changes, PATCH_FIELDS));
+        // Hibernate evicts this instance's cached customers after a bulk update, but the
+        // entity listener does not run, so tell the other instances here.
+        cacheVersionService.changed(CacheRegions.CUSTOMERS);
+        outbox.record(EntityType.CUSTOMER, ChangeAction.UPDATED, id);
+        changeFeed.publish(ChangeFeed.CUSTOMER, ChangeAction.UPDATED, id);
+        return result;
+    }
+
     public boolean deleteCustomer(Long id) {
         if (customerRepository.existsById(id)) {
             customerRepository.deleteById(id);
+            changeFeed.publish(ChangeFeed.CUSTOMER, ChangeAction.DELETED, id);
             return true;
         }
         return false;
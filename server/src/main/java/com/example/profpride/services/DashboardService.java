@@ -1,43 +1,65 @@
 package com.example.profpride.services;
 
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.dtos.DashboardSummary;
 import com.example.profpride.models.Booking;
+import com.example.profpride.models.DailyRevenue;
 import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.BookingViewRepository;
+import com.example.profpride.repositories.DailyRevenueRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class DashboardService {
 
     @Autowired
     private BookingRepository bookingRepository;
 
-    public List<Booking> getArrivals() {
-        List<Booking> bookings = bookingRepository.findAll();
-        return bookings.stream()
-                .filter(booking -> booking.getCheckInDate().getDayOfYear() == LocalDateTime.now().getDayOfYear())
-                .collect(Collectors.toList());
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+
+    @Autowired
+    private DailyRevenueRepository dailyRevenueRepository;
+
+    // Zone that decides what "today" means for the front desk; blank means the server's zone.
+    @Value("${profpride.dashboard.zone:}")
+    private String zone;
+
+    public LocalDate today() {
+        return LocalDate.now(zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone));
     }
 
-    public List<Booking> getDepartures() {
-        List<Booking> bookings = bookingRepository.findAll();
-        return bookings.stream()
-                .filter(booking -> booking.getCheckOutDate().getDayOfYear() == LocalDateTime.now().getDayOfYear())
-                .collect(Collectors.toList());
+    public List<Booking> getArrivals(LocalDate date) {
+        return bookingRepository.findByCheckInDateGreaterThanEqualAndCheckInDateLessThan(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    public List<Booking> getDepartures(LocalDate date) {
+        return bookingRepository.findByCheckOutDateGreaterThanEqualAndCheckOutDateLessThan(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
     }
 
     public List<Booking> getDueList() {
-        List<Booking> bookings = bookingRepository.findAll();
-        return bookings.stream()
-                .filter(booking -> {
-                    int totalAmountPaid = booking.getPayments().stream().mapToInt(payment -> payment.getAmount()).sum();
-                    int totalAmountDue = 100
-                            * (booking.getCheckOutDate().getDayOfYear() - booking.getCheckInDate().getDayOfYear());
-                    return totalAmountPaid < totalAmountDue;
-                })
-                .collect(Collectors.toList());
+        return bookingRepository.findByBalanceGreaterThan(0L);
+    }
+
+    /** The day's arrivals, departures, dues and takings from the read models (see ReadModelProjector). */
+    public DashboardSummary getSummary(LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.plusDays(1).atStartOfDay();
+        return new DashboardSummary(date,
+                bookingViewRepository.findByCheckInDateGreaterThanEqualAndCheckInDateLessThan(start, end),
+                bookingViewRepository.findByCheckOutDateGreaterThanEqualAndCheckOutDateLessThan(start, end),
+                bookingViewRepository.findByBalanceGreaterThan(0L),
+                dailyRevenueRepository.findById(date).orElseGet(() -> new DailyRevenue(date, 0, 0, 0, 0)));
     }
 }
@@ -1,44 +1,99 @@
 package com.example.profpride.services;
 
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.dtos.CursorPage;
+import com.example.profpride.dtos.PatchResult;
+import com.example.profpride.enums.ChangeAction;
+import com.example.profpride.enums.EntityType;
 import com.example.profpride.models.Expense;
 import com.example.profpride.repositories.ExpenseRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ExpenseService {
 
+    public static final Set<String> PATCH_FIELDS = Set.of("name", "description", "amount", "createdAt");
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Transactional
     public Expense createExpense(Expense expense) {
-        return expenseRepository.save(expense);
+        Expense saved = expenseRepository.save(expense);
+        outbox.record(EntityType.EXPENSE, ChangeAction.CREATED, saved.getId());
+        return saved;
     }
 
     public List<Expense> getAllExpenses() {
         return expenseRepository.findAll();
     }
 
+    public CursorPage<Expense> getExpensePage(String name, LocalDateTime from, LocalDateTime to,
+            String sort, String cursor, Integer size) {
+        List<Specification<Expense>> filters = new ArrayList<>();
+        if (name != null && !name.isBlank()) {
+            filters.add((root, query, cb) -> cb.equal(root.get("name"), name));
+        }
+        if (from != null) {
+            filters.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from));
+        }
+        if (to != null) {
+            filters.add((root, query, cb) -> cb.lessThan(root.get("createdAt"), to));
+        }
+        return keysetPaginator.page(expenseRepository, Specification.allOf(filters),
+                sort, Set.of("createdAt"), cursor, size);
+    }
+
     public Optional<Expense> getExpenseById(Long id) {
         return expenseRepository.findById(id);
     }
 
+    @Transactional
     public Expense updateExpense(Long id, Expense updatedExpense) {
         return expenseRepository.findById(id).map(expense -> {
             expense.setName(updatedExpense.getName());
             expense.setDescription(updatedExpense.getDescription());
             expense.setAmount(updatedExpense.getAmount());
             expense.setCreatedAt(updatedExpense.getCreatedAt());
-            return expenseRepository.save(expense);
+            Expense saved = expenseRepository.save(expense);
+            outbox.record(EntityType.EXPENSE, ChangeAction.UPDATED, id);
+            return saved;
         }).orElse(null);
     }
 
+    @Transactional
+    public PatchResult patchExpense(Long id, Map<String, Object> changes) {
+        PatchResult result = partialUpdater.apply(partialUpdater.parse(Expense.class, id, changes, PATCH_FIELDS));
+        outbox.record(EntityType.EXPENSE, ChangeAction.UPDATED, id);
+        return result;
+    }
+
+    @Transactional
     public boolean deleteExpense(Long id) {
         return expenseRepository.findById(id).map(expense -> {
             expenseRepository.delete(expense);
+            outbox.record(EntityType.EXPENSE, ChangeAction.DELETED, id);
             return true;
         }).orElse(false);
     }
@@ -0,0 +1,118 @@
+package com.example.profpride.services;
+
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.configs.PropertyContext;
+import com.example.profpride.enums.ExportFormat;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.ExpenseRepository;
+import com.example.profpride.repositories.PaymentRepository;
+import com.example.profpride.utils.RowWriter;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams bookings, payments and expenses to the response one row at a time.
+ *
+ * Rows come from read-only projection queries with a JDBC fetch size, so neither the
+ * result set nor the persistence context grows with the export; memory stays flat
+ * whether the range holds a thousand rows or ten million.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ExportService {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportBookings(ExportFormat format, LocalDateTime from, LocalDateTime to) {
+        return stream(format,
+                new String[] { "id", "roomNumber", "customerName", "checkInDate", "checkOutDate", "bookingStatus",
+                        "dueAmount", "paidAmount", "balance" },
+                () -> bookingRepository.streamForExport(from, to),
+                (writer, row) -> writer.write(row.getId(), row.getRoomNumber(), row.getCustomerName(),
+                        row.getCheckInDate(), row.getCheckOutDate(), row.getBookingStatus(), row.getDueAmount(),
+                        row.getPaidAmount(), row.getBalance()));
+    }
+
+    public StreamingResponseBody exportPayments(ExportFormat format, LocalDateTime from, LocalDateTime to) {
+        return stream(format,
+                new String[] { "id", "bookingId", "amount", "mode", "createdAt" },
+                () -> paymentRepository.streamForExport(from, to),
+                (writer, row) -> writer.write(row.getId(), row.getBookingId(), row.getAmount(), row.getMode(),
+                        row.getCreatedAt()));
+    }
+
+    public StreamingResponseBody exportExpenses(ExportFormat format, LocalDateTime from, LocalDateTime to) {
+        return stream(format,
+                new String[] { "id", "name", "description", "amount", "createdAt" },
+                () -> expenseRepository.streamForExport(from, to),
+                (writer, row) -> writer.write(row.getId(), row.getName(), row.getDescription(), row.getAmount(),
+                        row.getCreatedAt()));
+    }
+
+    // The body is written on another thread, so it takes the request's property along.
+    private <T> StreamingResponseBody stream(ExportFormat format, String[] columns, Supplier<Stream<T>> query,
+            RowSink<T> sink) {
+        String property = PropertyContext.current();
+        return out -> {
+            try (PropertyContext.Scope scope = PropertyContext.enter(property)) {
+                stream(out, format, columns, query, sink);
+            }
+        };
+    }
+
+    // Repository streams need an open transaction for as long as the cursor is read.
+    private <T> void stream(OutputStream out, ExportFormat format, String[] columns,
+            Supplier<Stream<T>> query, RowSink<T> sink) throws IOException {
+        try (RowWriter writer = RowWriter.open(format, out, columns)) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<T> rows = query.get()) {
+                    Iterator<T> iterator = rows.iterator();
+                    for (int count = 1; iterator.hasNext(); count++) {
+                        sink.write(writer, iterator.next());
+                        if (count % FLUSH_EVERY == 0) {
+                            writer.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSink<T> {
+        void write(RowWriter writer, T row) throws IOException;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.profpride.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Sparse fieldsets for the list endpoints.
+ *
+ * A {@code fields=} list such as {@code id,checkInDate,room.roomNumber} becomes a
+ * criteria tuple query that selects just those columns, left-joining an association
+ * only when one of its fields is asked for. Rows come back as nested maps shaped like
+ * the entity JSON ({@code {"id":1,"room":{"roomNumber":"101"}}}) and no entity is ever
+ * loaded into the persistence context.
+ */
+@Component
+public class FieldProjection {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Splits a comma-separated {@code fields} parameter, keeping the given order.
+     *
+     * @throws ResponseStatusException 400 when a field is not in {@code allowed}
+     */
+    public static List<String> parse(String fields, Set<String> allowed) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.strip();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown field " + name + "; allowed: " + String.join(",", new TreeSet<>(allowed)));
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fields must name at least one field");
+        }
+        return new ArrayList<>(requested);
+    }
+
+    /**
+     * @param limit maximum number of rows, or 0 for all of them
+     */
+    public <T> List<Map<String, Object>> select(Class<T> entity, List<String> fields, Specification<T> filter,
+            Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entity);
+
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(path(root, joins, field));
+        }
+        query.multiselect(selections);
+        Predicate restriction = filter != null ? filter.toPredicate(root, query, cb) : null;
+        if (restriction != null) {
+            query.where(restriction);
+        }
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<?> path = root.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (limit > 0) {
+            typed.setMaxResults(limit);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typed.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                put(row, fields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // "room.roomNumber" left-joins room once and selects its roomNumber; ids of an
+    // association are read from the foreign key without a join.
+    private static Path<?> path(Root<?> root, Map<String, From<?, ?>> joins, String field) {
+        String[] parts = field.split("\\.");
+        if (parts.length == 2 && parts[1].equals("id")) {
+            return root.get(parts[0]).get("id");
+        }
+        From<?, ?> from = root;
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < parts.length - 1; i++) {
+            prefix.append(i == 0 ? "" : ".").append(parts[i]);
+            From<?, ?> parent = from;
+            String association = parts[i];
+            from = joins.computeIfAbsent(prefix.toString(), key -> parent.join(association, JoinType.LEFT));
+        }
+        return from.get(parts[parts.length - 1]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> row, String field, Object value) {
+        String[] parts = field.split("\\.");
+        Map<String, Object> target = row;
+        for (int i = 0; i < parts.length - 1; i++) {
+            target = (Map<String, Object>) target.computeIfAbsent(parts[i], key -> new LinkedHashMap<>());
+        }
+        target.put(parts[parts.length - 1], value);
+    }
+}
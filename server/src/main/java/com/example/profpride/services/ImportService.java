@@ -0,0 +1,335 @@
+package com.example.profpride.services;
+
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.dtos.ImportReport;
+import com.example.profpride.enums.BookingStatusType;
+import com.example.profpride.enums.ChangeAction;
+import com.example.profpride.enums.EntityType;
+import com.example.profpride.enums.PaymentMode;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.Customer;
+import com.example.profpride.models.Payment;
+import com.example.profpride.models.Room;
+import com.example.profpride.utils.Csv;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk ingest of customers, bookings and payments from CSV or NDJSON.
+ *
+ * The body is read line by line and handled in chunks. Each chunk resolves its room,
+ * customer and booking references with one id lookup per entity type, persists the
+ * valid rows in its own transaction and lets Hibernate send the inserts as JDBC
+ * batches. Payments move their bookings' ledgers with one update per chunk. Invalid
+ * rows are reported by line number; a chunk whose transaction fails is rejected as a
+ * whole without stopping the rest of the import.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ImportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Value("${profpride.import.chunk-size:500}")
+    private int defaultChunkSize;
+
+    private final TransactionTemplate chunkTransaction;
+
+    public ImportService(PlatformTransactionManager transactionManager) {
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportReport importCustomers(InputStream body, boolean csv, Integer chunkSize) throws IOException {
+        return ingest(body, csv, chunkSize, (rows, report) -> {
+            List<Customer> customers = new ArrayList<>();
+            for (Row row : rows) {
+                customers.add(new Customer(null, row.get("name"), row.get("phoneNumber"), row.get("email"),
+                        row.get("documentsFolderLink"), null, 0));
+            }
+            chunkTransaction.executeWithoutResult(tx -> customers.forEach(entityManager::persist));
+            return customers.size();
+        });
+    }
+
+    public ImportReport importBookings(InputStream body, boolean csv, Integer chunkSize) throws IOException {
+        return ingest(body, csv, chunkSize, (rows, report) -> {
+            Set<Long> rooms = existingIds(Room.class, rows, "roomId");
+            Set<Long> customers = existingIds(Customer.class, rows, "customerId");
+            return chunkTransaction.execute(tx -> {
+                List<Long> imported = new ArrayList<>();
+                for (Row row : rows) {
+                    try {
+                        Long roomId = row.getLong("roomId");
+                        Long customerId = row.getLong("customerId");
+                        if (!rooms.contains(roomId)) {
+                            throw new IllegalArgumentException("Unknown roomId " + roomId);
+                        }
+                        if (!customers.contains(customerId)) {
+                            throw new IllegalArgumentException("Unknown customerId " + customerId);
+                        }
+                        LocalDateTime checkInDate = row.getDateTime("checkInDate");
+                        LocalDateTime checkOutDate = row.getDateTime("checkOutDate");
+                        BookingService.checkStay(checkInDate, checkOutDate);
+                        Booking booking = new Booking();
+                        booking.setRoom(entityManager.getReference(Room.class, roomId));
+                        booking.setCustomer(entityManager.getReference(Customer.class, customerId));
+                        booking.setCheckInDate(checkInDate);
+                        booking.setCheckOutDate(checkOutDate);
+                        String bookingStatus = row.get("bookingStatus");
+                        booking.setBookingStatus(bookingStatus != null ? BookingStatusType.valueOf(bookingStatus) : null);
+                        Long dueAmount = row.getLong("dueAmount");
+                        booking.setDueAmount(dueAmount != null ? dueAmount : 0L);
+                        booking.setPaidAmount(0L);
+                        booking.setBalance(booking.getDueAmount());
+                        occupancyIndex.reserve(booking, () -> {
+                            entityManager.persist(booking);
+                            return booking;
+                        });
+                        imported.add(booking.getId());
+                    } catch (ResponseStatusException e) {
+                        report.reject(row.line(), e.getReason());
+                    } catch (IllegalArgumentException | DateTimeException e) {
+                        report.reject(row.line(), e.getMessage());
+                    }
+                }
+                entityManager.flush();
+                outbox.recordAll(EntityType.BOOKING, ChangeAction.CREATED, imported);
+                return imported.size();
+            });
+        });
+    }
+
+    public ImportReport importPayments(InputStream body, boolean csv, Integer chunkSize) throws IOException {
+        return ingest(body, csv, chunkSize, (rows, report) -> {
+            Set<Long> bookings = existingIds(Booking.class, rows, "bookingId");
+            return chunkTransaction.execute(tx -> {
+                Map<Long, Long> paidByBooking = new HashMap<>();
+                List<Long> imported = new ArrayList<>();
+                for (Row row : rows) {
+                    try {
+                        Long bookingId = row.getLong("bookingId");
+                        if (!bookings.contains(bookingId)) {
+                            throw new IllegalArgumentException("Unknown bookingId " + bookingId);
+                        }
+                        Long amount = row.getLong("amount");
+                        if (amount == null) {
+                            throw new IllegalArgumentException("amount is required");
+                        }
+                        String mode = row.get("mode");
+                        Payment payment = new Payment(null, Math.toIntExact(amount), row.getDateTime("createdAt"),
+                                mode != null ? PaymentMode.valueOf(mode) : null,
+                                entityManager.getReference(Booking.class, bookingId), 0);
+                        entityManager.persist(payment);
+                        paidByBooking.merge(bookingId, amount, Long::sum);
+                        imported.add(payment.getId());
+                    } catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+                        report.reject(row.line(), e.getMessage());
+                    }
+                }
+                entityManager.flush();
+                applyPayments(paidByBooking);
+                outbox.recordAll(EntityType.PAYMENT, ChangeAction.CREATED, imported);
+                return imported.size();
+            });
+        });
+    }
+
+    private ImportReport ingest(InputStream body, boolean csv, Integer chunkSize, ChunkWriter writer)
+            throws IOException {
+        int size = chunkSize != null ? chunkSize : defaultChunkSize;
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "chunkSize must be positive");
+        }
+        long started = System.nanoTime();
+        ImportReport report = new ImportReport();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            List<Row> chunk = new ArrayList<>(size);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = Csv.parseLine(line);
+                    continue;
+                }
+                report.received(1);
+                try {
+                    chunk.add(csv ? csvRow(lineNumber, header, line) : jsonRow(lineNumber, line));
+                } catch (IOException | IllegalArgumentException e) {
+                    report.reject(lineNumber, "Unreadable row: " + e.getMessage());
+                }
+                if (chunk.size() == size) {
+                    writeChunk(chunk, writer, report);
+                    chunk = new ArrayList<>(size);
+                }
+            }
+            writeChunk(chunk, writer, report);
+        }
+        report.finish((System.nanoTime() - started) / 1_000_000);
+        if (report.getImported() > 0) {
+            // Too many rows to announce one by one.
+            changeFeed.reset();
+        }
+        return report;
+    }
+
+    private void writeChunk(List<Row> chunk, ChunkWriter writer, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        ImportReport chunkReport = new ImportReport();
+        try {
+            report.imported(writer.write(chunk, chunkReport));
+            chunkReport.getErrors().forEach(error -> report.reject(error.getLine(), error.getMessage()));
+        } catch (RuntimeException e) {
+            // The chunk transaction rolled back, so none of its rows were stored.
+            String message = "Chunk rolled back: " + e.getMessage();
+            chunk.forEach(row -> report.reject(row.line(), message));
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Adds each booking's share of the chunk's payments to its ledger, in one statement
+     * for the whole chunk. The amounts are summed here and picked per row by a CASE, which
+     * keeps the update linear in the chunk size; a correlated sum over the new payments
+     * would look at every earlier payment of each booking too.
+     */
+    private void applyPayments(Map<Long, Long> paidByBooking) {
+        if (paidByBooking.isEmpty()) {
+            return;
+        }
+        StringBuilder paid = new StringBuilder("case b.id");
+        for (int i = 0; i < paidByBooking.size(); i++) {
+            paid.append(" when :id").append(i).append(" then :paid").append(i);
+        }
+        paid.append(" else 0 end");
+        // balance is assigned first: MySQL evaluates SET clauses left to right with updated values.
+        Query update = entityManager.createQuery("update Booking b set "
+                + "b.balance = coalesce(b.dueAmount, 0) - coalesce(b.paidAmount, 0) - " + paid + ", "
+                + "b.paidAmount = coalesce(b.paidAmount, 0) + " + paid + " where b.id in :ids");
+        int i = 0;
+        for (Map.Entry<Long, Long> booking : paidByBooking.entrySet()) {
+            update.setParameter("id" + i, booking.getKey()).setParameter("paid" + i, booking.getValue());
+            i++;
+        }
+        update.setParameter("ids", paidByBooking.keySet()).executeUpdate();
+    }
+
+    private Set<Long> existingIds(Class<?> entity, List<Row> rows, String column) {
+        Set<Long> ids = new HashSet<>();
+        for (Row row : rows) {
+            try {
+                Long id = row.getLong(column);
+                if (id != null) {
+                    ids.add(id);
+                }
+            } catch (IllegalArgumentException e) {
+                // reported when the row itself is processed
+            }
+        }
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        return new HashSet<>(entityManager
+                .createQuery("select e.id from " + entity.getSimpleName() + " e where e.id in :ids", Long.class)
+                .setParameter("ids", ids)
+                .getResultList());
+    }
+
+    private static Row csvRow(long line, List<String> header, String text) {
+        List<String> fields = Csv.parseLine(text);
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < header.size() && i < fields.size(); i++) {
+            values.put(header.get(i).trim(), fields.get(i).isEmpty() ? null : fields.get(i));
+        }
+        return new Row(line, values);
+    }
+
+    private Row jsonRow(long line, String text) throws IOException {
+        JsonNode node = objectMapper.readTree(text);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext();) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            values.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText());
+        }
+        return new Row(line, values);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        int write(List<Row> rows, ImportReport report);
+    }
+
+    private record Row(long line, Map<String, String> values) {
+        String get(String column) {
+            return values.get(column);
+        }
+
+        Long getLong(String column) {
+            String value = values.get(column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Long.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " is not a number: " + value);
+            }
+        }
+
+        LocalDateTime getDateTime(String column) {
+            String value = values.get(column);
+            return value != null ? LocalDateTime.parse(value.trim()) : null;
+        }
+    }
+}
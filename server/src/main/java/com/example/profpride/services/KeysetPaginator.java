@@ -0,0 +1,196 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dtos.CursorPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Keyset (seek) pagination over any repository that supports specifications.
+ *
+ * Pages are ordered by {@code (sortField, id)} and the next page starts strictly after
+ * the last row returned, so the database never skips rows with OFFSET and every page
+ * costs the same. The cursor handed to clients is opaque: Base64 over a small JSON object
+ * holding the sort it belongs to and the last row's key, where a null sort field is a
+ * JSON null. Rows whose sort field is null sort low, the way MySQL orders them: first
+ * when ascending, last when descending.
+ */
+@Component
+public class KeysetPaginator {
+
+    private static final String ID = "id";
+
+    @Value("${profpride.pagination.default-size:50}")
+    private int defaultSize;
+
+    @Value("${profpride.pagination.max-size:200}")
+    private int maxSize;
+
+    @Autowired
+    private FieldProjection fieldProjection;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * @param sort     field name to sort by, prefixed with '-' for descending; defaults to id
+     * @param sortable fields callers may sort by besides id
+     * @param fetch    associations to load with the page in the same select (as a fetch
+     *                 graph); leave out collections, the limit could not be applied in SQL
+     */
+    public <T> CursorPage<T> page(JpaSpecificationExecutor<T> repository, Specification<T> filter,
+            String sort, Set<String> sortable, String cursor, Integer size, String... fetch) {
+        Keyset<T> keyset = keyset(filter, sort, sortable, cursor, size);
+        List<T> rows = repository.findBy(keyset.spec(),
+                query -> query.project(fetch).sortBy(keyset.order()).limit(keyset.limit() + 1).all());
+        return toPage(keyset, rows,
+                (row, field) -> PropertyAccessorFactory.forBeanPropertyAccess(row).getPropertyValue(field));
+    }
+
+    /**
+     * Same as {@link #page} but selects only {@code fields} (see {@link FieldProjection}).
+     * The id and the sort field are always selected, since the cursor is built from them.
+     */
+    public <T> CursorPage<Map<String, Object>> page(Class<T> entity, List<String> fields, Specification<T> filter,
+            String sort, Set<String> sortable, String cursor, Integer size) {
+        Keyset<T> keyset = keyset(filter, sort, sortable, cursor, size);
+        List<String> selected = new ArrayList<>(fields);
+        for (String key : List.of(ID, keyset.field())) {
+            if (!selected.contains(key)) {
+                selected.add(key);
+            }
+        }
+        List<Map<String, Object>> rows = fieldProjection.select(entity, selected, keyset.spec(), keyset.order(),
+                keyset.limit() + 1);
+        return toPage(keyset, rows, Map::get);
+    }
+
+    private <T> Keyset<T> keyset(Specification<T> filter, String sort, Set<String> sortable, String cursor,
+            Integer size) {
+        String sortKey = sort == null || sort.isBlank() ? ID : sort;
+        boolean descending = sortKey.startsWith("-");
+        String field = descending ? sortKey.substring(1) : sortKey;
+        if (!field.equals(ID) && !sortable.contains(field)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot sort by " + field);
+        }
+
+        Specification<T> spec = filter;
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(after(field, descending, decode(cursor, sortKey)));
+        }
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort order = field.equals(ID) ? Sort.by(direction, ID) : Sort.by(direction, field, ID);
+        return new Keyset<>(spec, order, pageSize(size), sortKey, field);
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return Math.min(defaultSize, maxSize);
+        }
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be positive");
+        }
+        return Math.min(size, maxSize);
+    }
+
+    // Rows sort by (key, id) with null keys low, so what comes after a null key is the rest
+    // of the null keys and then, ascending, every non-null one.
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <T> Specification<T> after(String field, boolean descending, Position position) {
+        long lastId = position.id();
+        return (root, query, cb) -> {
+            Path<Long> id = root.get(ID);
+            Predicate afterId = descending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId);
+            if (field.equals(ID)) {
+                return afterId;
+            }
+            Path<Comparable> key = root.get(field);
+            if (position.key() == null) {
+                Predicate sameKey = cb.and(cb.isNull(key), afterId);
+                return descending ? sameKey : cb.or(sameKey, cb.isNotNull(key));
+            }
+            Comparable lastKey = parseKey(key.getJavaType(), position.key());
+            Predicate afterKey = cb.or(
+                    descending ? cb.lessThan(key, lastKey) : cb.greaterThan(key, lastKey),
+                    cb.and(cb.equal(key, lastKey), afterId));
+            return descending ? cb.or(afterKey, cb.isNull(key)) : afterKey;
+        };
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable parseKey(Class<?> type, String value) {
+        try {
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            if (type == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == Integer.class) {
+                return Integer.valueOf(value);
+            }
+            return value;
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private <R> CursorPage<R> toPage(Keyset<?> keyset, List<R> rows, BiFunction<R, String, Object> property) {
+        if (rows.size() <= keyset.limit()) {
+            return new CursorPage<>(rows, null);
+        }
+        List<R> items = rows.subList(0, keyset.limit());
+        R last = items.get(keyset.limit() - 1);
+        Object key = property.apply(last, keyset.field());
+        Position position = new Position(keyset.sortKey(), key != null ? key.toString() : null,
+                ((Number) property.apply(last, ID)).longValue());
+        return new CursorPage<>(items, encode(position));
+    }
+
+    private String encode(Position position) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(position));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write cursor", e);
+        }
+    }
+
+    private Position decode(String cursor, String sortKey) {
+        try {
+            Position position = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), Position.class);
+            if (!sortKey.equals(position.sort()) || position.id() == null) {
+                throw new IllegalArgumentException("cursor does not match sort");
+            }
+            return position;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private record Keyset<T>(Specification<T> spec, Sort order, int limit, String sortKey, String field) {
+    }
+
+    /** Where a page ended: the sort it was read with, the last row's sort key (null if the row has none) and id. */
+    private record Position(String sort, String key, Long id) {
+    }
+}
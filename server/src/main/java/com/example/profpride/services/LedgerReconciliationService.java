@@ -0,0 +1,70 @@
+package com.example.profpride.services;
+
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.configs.PropertyContext;
+import com.example.profpride.enums.ChangeAction;
+import com.example.profpride.enums.EntityType;
+import com.example.profpride.repositories.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the paid/balance ledger kept on each booking against SUM(payment.amount)
+ * and repairs any drift in a single bulk statement. It also fills the ledger for
+ * bookings created before the columns existed. Every property is checked, each in its
+ * own transaction against its own database.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class LedgerReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerReconciliationService.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private PropertyContext propertyContext;
+
+    private final TransactionTemplate transaction;
+
+    public LedgerReconciliationService(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${profpride.ledger.reconcile-cron:0 0 3 * * *}")
+    public int reconcile() {
+        AtomicInteger total = new AtomicInteger();
+        propertyContext.forEach(() -> total.addAndGet(transaction.execute(status -> reconcileProperty())));
+        return total.get();
+    }
+
+    private int reconcileProperty() {
+        int corrected = bookingRepository.reconcileLedger();
+        if (corrected > 0) {
+            log.warn("Booking ledger reconciliation corrected {} booking(s) of property {}", corrected,
+                    PropertyContext.current());
+            // The corrected bookings are not known one by one, so reproject them all.
+            outbox.record(EntityType.BOOKING, ChangeAction.UPDATED, null);
+            changeFeed.reset();
+        }
+        return corrected;
+    }
+}
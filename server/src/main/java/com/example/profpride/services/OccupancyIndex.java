@@ -0,0 +1,548 @@
+package com.example.profpride.services;
+
+import com.example.profpride.configs.PropertyContext;
+import com.example.profpride.enums.BookingStatusType;
+import com.example.profpride.enums.EntityType;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.OutboxEvent;
+import com.example.profpride.models.Room;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.OutboxEventRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the occupied nights of every room in memory so overlapping bookings can be
+ * rejected without scanning the booking table.
+ *
+ * Each room holds its stays in a TreeMap keyed by the first night (as an epoch day),
+ * and stays never overlap, so an overlap check only has to look at the stay that starts
+ * just before the requested checkout. Writers for a room serialize on one of a fixed
+ * number of striped locks, which keeps unrelated rooms from contending with each other.
+ *
+ * For availability searches each room also keeps its booked nights as a bitset, one bit
+ * per night over a horizon from about a year back to three years ahead. A writer
+ * replaces the room's words with an updated copy under the room's lock, so searches
+ * read them without locking and check a range by OR-ing the masked words. The horizon
+ * moves forward once a day; ranges outside it are checked against the stays instead.
+ *
+ * Room ids are only unique within a property, so each property has its own maps. The
+ * locks are shared; two properties' rooms on one stripe only wait for each other.
+ *
+ * Booking writes made on other instances reach the index through the outbox: every
+ * refresh interval it reads the booking events since the last refresh (see
+ * OutboxCursor) and reloads those bookings' stays. Until then such a booking is not
+ * seen here, so two instances can still accept overlapping stays within about one
+ * interval of each other; a refresh that finds one logs it. Bookings with a write in
+ * progress on this instance are left alone and reloaded on the next refresh.
+ */
+@Component
+public class OccupancyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancyIndex.class);
+
+    private static final int STRIPES = 64;
+
+    private static final int DAYS_BEHIND = 366;
+    private static final int DAYS_AHEAD = 3 * 366;
+    // Rounded up to whole words, plus one since the start is rounded down to a word.
+    private static final int HORIZON_WORDS = (DAYS_BEHIND + DAYS_AHEAD + 63) / 64 + 1;
+    private static final int HORIZON_DAYS = HORIZON_WORDS * 64;
+
+    // Outbox events read again on startup, in case some of them were not yet committed
+    // when the stays were loaded.
+    private static final int STARTUP_OVERLAP = 1000;
+    private static final int REFRESH_BATCH = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PropertyContext propertyContext;
+
+    // The same as the projector's.
+    @Value("${profpride.projector.gap-timeout:10m}")
+    private Duration gapTimeout;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final Map<String, Occupancy> properties = new ConcurrentHashMap<>();
+
+    public OccupancyIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        propertyContext.forEach(() -> {
+            Occupancy occupancy = occupancy();
+            Long lastEventId = outboxEventRepository.findLastId();
+            occupancy.cursor = new OutboxCursor(lastEventId != null ? Math.max(lastEventId - STARTUP_OVERLAP, 0) : 0,
+                    null);
+            for (BookingRepository.StayView stay
+                    : bookingRepository.findStaysExcludingStatus(BookingStatusType.CANCELLED)) {
+                if (stay.getRoomId() == null || stay.getCheckInDate() == null || stay.getCheckOutDate() == null) {
+                    continue;
+                }
+                long from = firstNight(stay.getCheckInDate());
+                place(occupancy, stay.getId(), null,
+                        new Placement(stay.getRoomId(), from, lastNightExclusive(from, stay.getCheckOutDate())));
+            }
+        });
+    }
+
+    /**
+     * Checks that the booking's room is free for its nights, runs {@code save} and then
+     * records the saved booking, all while holding the room's lock. When the booking
+     * already exists and moves to another room, both rooms are locked. If this runs inside
+     * a transaction that later rolls back, the index is put back the way it was and the
+     * booking is reloaded on the next refresh.
+     *
+     * @throws ResponseStatusException with 409 CONFLICT when the nights are taken
+     */
+    public Booking reserve(Booking booking, Supplier<Booking> save) {
+        Occupancy occupancy = occupancy();
+        Long roomId = booking.getRoom() != null ? booking.getRoom().getId() : null;
+        while (true) {
+            Placement previous = booking.getId() != null ? occupancy.placements.get(booking.getId()) : null;
+            Long previousRoomId = previous != null ? previous.roomId() : roomId;
+            lockRooms(roomId, previousRoomId);
+            try {
+                if (booking.getId() != null && !Objects.equals(occupancy.placements.get(booking.getId()), previous)) {
+                    // Moved by another writer before we got the lock, maybe to a room we do not hold.
+                    continue;
+                }
+                Placement current = null;
+                if (occupies(booking)) {
+                    long from = firstNight(booking.getCheckInDate());
+                    current = new Placement(roomId, from, lastNightExclusive(from, booking.getCheckOutDate()));
+                    if (!isFree(occupancy, roomId, current.from(), current.to(), booking.getId())) {
+                        throw new ResponseStatusException(HttpStatus.CONFLICT,
+                                "Room is already booked for the selected dates");
+                    }
+                }
+                // A booking without a stay has no room for another writer to wait on, so it is
+                // claimed before saving; of two writers placing it, the second one retries.
+                boolean claimed = booking.getId() != null && previous == null && current != null;
+                if (claimed && occupancy.placements.putIfAbsent(booking.getId(), current) != null) {
+                    continue;
+                }
+                Booking saved;
+                try {
+                    saved = save.get();
+                } catch (RuntimeException e) {
+                    if (claimed) {
+                        occupancy.placements.remove(booking.getId(), current);
+                    }
+                    throw e;
+                }
+                place(occupancy, saved.getId(), previous, current);
+                undoOnRollback(occupancy, saved.getId(), previous, current);
+                return saved;
+            } finally {
+                unlockRooms(roomId, previousRoomId);
+            }
+        }
+    }
+
+    /**
+     * The rooms among {@code candidates} that are free for every night from {@code from}
+     * to {@code to} (exclusive, epoch days), in the order given.
+     */
+    public List<Room> freeRooms(List<Room> candidates, long from, long to) {
+        Occupancy occupancy = occupancy();
+        List<Room> free = new ArrayList<>(candidates.size());
+        for (Room room : candidates) {
+            Long roomId = room.getId();
+            if (roomId == null) {
+                continue;
+            }
+            Nights booked = occupancy.nights.get(roomId);
+            boolean isFree;
+            if (booked == null) {
+                // Nothing booked inside the horizon.
+                long start = occupancy.horizonStart;
+                isFree = from >= start && to <= start + HORIZON_DAYS || isFreeLocked(occupancy, roomId, from, to);
+            } else if (from >= booked.start() && to <= booked.start() + HORIZON_DAYS) {
+                isFree = isClear(booked.words(), (int) (from - booked.start()), (int) (to - 1 - booked.start()));
+            } else {
+                isFree = isFreeLocked(occupancy, roomId, from, to);
+            }
+            if (isFree) {
+                free.add(room);
+            }
+        }
+        return free;
+    }
+
+    /** Moves the bitset horizon forward once today has moved on by a word's worth of days. */
+    @Scheduled(cron = "${profpride.occupancy.roll-cron:0 5 0 * * *}")
+    public void roll() {
+        long start = horizonStart(LocalDate.now().toEpochDay());
+        for (Occupancy occupancy : properties.values()) {
+            if (start == occupancy.horizonStart) {
+                continue;
+            }
+            // Rooms first marked from here on start at the new horizon; the rest are redrawn.
+            occupancy.horizonStart = start;
+            for (Long roomId : occupancy.rooms.keySet()) {
+                lockRooms(roomId, roomId);
+                try {
+                    long[] words = new long[HORIZON_WORDS];
+                    TreeMap<Long, Stay> stays = occupancy.rooms.get(roomId);
+                    for (Map.Entry<Long, Stay> stay : stays.headMap(start + HORIZON_DAYS).entrySet()) {
+                        fill(words, stay.getKey() - start, stay.getValue().end() - start, true);
+                    }
+                    occupancy.nights.put(roomId, new Nights(start, words));
+                } finally {
+                    unlockRooms(roomId, roomId);
+                }
+            }
+        }
+    }
+
+    /** Reloads the stays of bookings written on other instances since the last refresh. */
+    @Scheduled(fixedDelayString = "${profpride.occupancy.refresh-ms:1000}")
+    public void refresh() {
+        propertyContext.forEach(() -> {
+            Occupancy occupancy = occupancy();
+            try {
+                boolean more;
+                do {
+                    Set<Long> changed = new HashSet<>(occupancy.retry);
+                    occupancy.retry.removeAll(changed);
+                    try {
+                        for (OutboxEvent event : occupancy.cursor.read(entityManager, REFRESH_BATCH)) {
+                            // Events without an id come from ledger repairs, which never move a stay.
+                            if (event.getEntity() == EntityType.BOOKING && event.getEntityId() != null) {
+                                changed.add(event.getEntityId());
+                            }
+                        }
+                        if (!changed.isEmpty()) {
+                            reload(occupancy, changed);
+                        }
+                    } catch (RuntimeException e) {
+                        occupancy.retry.addAll(changed);
+                        throw e;
+                    }
+                    more = occupancy.cursor.advance(gapTimeout);
+                } while (more);
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh the occupancy of property {}", PropertyContext.current(), e);
+            }
+        });
+    }
+
+    public void release(Long bookingId) {
+        Occupancy occupancy = occupancy();
+        while (true) {
+            Placement placement = occupancy.placements.get(bookingId);
+            if (placement == null) {
+                return;
+            }
+            lockRooms(placement.roomId(), placement.roomId());
+            try {
+                if (!placement.equals(occupancy.placements.get(bookingId))) {
+                    continue; // moved meanwhile, maybe to a room we do not hold
+                }
+                place(occupancy, bookingId, placement, null);
+            } finally {
+                unlockRooms(placement.roomId(), placement.roomId());
+            }
+            undoOnRollback(occupancy, bookingId, placement, null);
+            return;
+        }
+    }
+
+    // Bookings written on this instance are reloaded too; if they are unchanged nothing happens.
+    private void reload(Occupancy occupancy, Set<Long> bookingIds) {
+        Map<Long, Placement> known = new HashMap<>();
+        bookingIds.forEach(id -> known.put(id, occupancy.placements.get(id)));
+        Map<Long, Placement> current = new HashMap<>();
+        for (BookingRepository.StayView stay
+                : bookingRepository.findStaysByIdInExcludingStatus(bookingIds, BookingStatusType.CANCELLED)) {
+            if (stay.getRoomId() != null && stay.getCheckInDate() != null && stay.getCheckOutDate() != null) {
+                long from = firstNight(stay.getCheckInDate());
+                current.put(stay.getId(), new Placement(stay.getRoomId(), from,
+                        lastNightExclusive(from, stay.getCheckOutDate())));
+            }
+        }
+        for (Long bookingId : bookingIds) {
+            Placement previous = known.get(bookingId);
+            Placement placement = current.get(bookingId);
+            if (Objects.equals(previous, placement)) {
+                continue;
+            }
+            Long roomId = placement != null ? placement.roomId() : previous.roomId();
+            Long previousRoomId = previous != null ? previous.roomId() : roomId;
+            lockRooms(roomId, previousRoomId);
+            try {
+                if (occupancy.inFlight.containsKey(bookingId)
+                        || !Objects.equals(occupancy.placements.get(bookingId), previous)) {
+                    // Written here meanwhile; what was read may be older than that.
+                    occupancy.retry.add(bookingId);
+                    continue;
+                }
+                if (placement != null && !isFree(occupancy, roomId, placement.from(), placement.to(), bookingId)) {
+                    log.warn("Booking {} overlaps another booking of room {} in property {}", bookingId, roomId,
+                            PropertyContext.current());
+                }
+                if (!place(occupancy, bookingId, previous, placement)) {
+                    occupancy.retry.add(bookingId);
+                }
+            } finally {
+                unlockRooms(roomId, previousRoomId);
+            }
+        }
+    }
+
+    private Occupancy occupancy() {
+        return properties.computeIfAbsent(PropertyContext.current(),
+                property -> new Occupancy(horizonStart(LocalDate.now().toEpochDay())));
+    }
+
+    private void undoOnRollback(Occupancy occupancy, Long bookingId, Placement previous, Placement current) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        occupancy.inFlight.merge(bookingId, 1, Integer::sum);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    restore(occupancy, bookingId, previous, current);
+                }
+                occupancy.inFlight.computeIfPresent(bookingId, (id, writes) -> writes > 1 ? writes - 1 : null);
+            }
+        });
+    }
+
+    // What was there before may itself have been an uncommitted write that rolls back too,
+    // so the booking is also reloaded from the database on the next refresh. A booking
+    // another writer has moved on since is left to that writer.
+    private void restore(Occupancy occupancy, Long bookingId, Placement previous, Placement current) {
+        Long roomId = current != null ? current.roomId() : null;
+        Long previousRoomId = previous != null ? previous.roomId() : roomId;
+        lockRooms(roomId, previousRoomId);
+        try {
+            if (Objects.equals(occupancy.placements.get(bookingId), current)) {
+                place(occupancy, bookingId, current, previous);
+            }
+        } finally {
+            unlockRooms(roomId, previousRoomId);
+        }
+        occupancy.retry.add(bookingId);
+    }
+
+    private boolean isFree(Occupancy occupancy, Long roomId, long from, long to, Long ignoreBookingId) {
+        TreeMap<Long, Stay> stays = occupancy.rooms.get(roomId);
+        if (stays == null) {
+            return true;
+        }
+        // Stays never overlap, so the only candidate is the last one starting before "to".
+        Map.Entry<Long, Stay> candidate = stays.lowerEntry(to);
+        while (candidate != null && candidate.getValue().end() > from) {
+            if (!candidate.getValue().bookingId().equals(ignoreBookingId)) {
+                return false;
+            }
+            candidate = stays.lowerEntry(candidate.getKey());
+        }
+        return true;
+    }
+
+    private boolean isFreeLocked(Occupancy occupancy, Long roomId, long from, long to) {
+        lockRooms(roomId, roomId);
+        try {
+            return isFree(occupancy, roomId, from, to, null);
+        } finally {
+            unlockRooms(roomId, roomId);
+        }
+    }
+
+    /**
+     * Moves a booking's stay from {@code previous} to {@code current}, either of which may
+     * be null, with both rooms locked and the booking known to be at {@code previous}. Its
+     * placement is swapped in one step and never missing in between, so a writer that read
+     * the old one before taking its locks sees the change when it checks again. Returns
+     * false, changing nothing, when a booking without a stay was placed meanwhile by a
+     * writer holding other rooms.
+     */
+    private boolean place(Occupancy occupancy, Long bookingId, Placement previous, Placement current) {
+        if (current == null) {
+            occupancy.placements.remove(bookingId, previous);
+        } else if (previous == null) {
+            Placement placed = occupancy.placements.putIfAbsent(bookingId, current);
+            if (placed != null && !placed.equals(current)) {
+                return false;
+            }
+        } else {
+            occupancy.placements.put(bookingId, current);
+        }
+        if (previous != null) {
+            TreeMap<Long, Stay> stays = occupancy.rooms.get(previous.roomId());
+            Stay stay = stays != null ? stays.get(previous.from()) : null;
+            if (stay != null && stay.bookingId().equals(bookingId)) {
+                stays.remove(previous.from());
+                mark(occupancy, previous.roomId(), previous.from(), previous.to(), false);
+            }
+        }
+        if (current != null) {
+            occupancy.rooms.computeIfAbsent(current.roomId(), id -> new TreeMap<>())
+                    .put(current.from(), new Stay(current.to(), bookingId));
+            mark(occupancy, current.roomId(), current.from(), current.to(), true);
+        }
+        return true;
+    }
+
+    // Called under the room's lock. Stays never overlap, so clearing a stay's nights
+    // cannot clear another stay's.
+    private void mark(Occupancy occupancy, Long roomId, long from, long to, boolean booked) {
+        Nights current = occupancy.nights.get(roomId);
+        long start = current != null ? current.start() : occupancy.horizonStart;
+        if (to <= start || from >= start + HORIZON_DAYS) {
+            return;
+        }
+        long[] words = current != null ? current.words().clone() : new long[HORIZON_WORDS];
+        fill(words, from - start, to - start, booked);
+        occupancy.nights.put(roomId, new Nights(start, words));
+    }
+
+    /** Sets or clears the bits from {@code from} to {@code to} (exclusive), clipped to the words. */
+    private static void fill(long[] words, long from, long to, boolean set) {
+        int first = (int) Math.max(from, 0);
+        int last = (int) Math.min(to, (long) words.length * 64) - 1;
+        for (int w = first >>> 6; w <= last >>> 6; w++) {
+            long mask = -1L;
+            if (w == first >>> 6) {
+                mask &= -1L << first;
+            }
+            if (w == last >>> 6) {
+                mask &= -1L >>> (63 - (last & 63));
+            }
+            words[w] = set ? words[w] | mask : words[w] & ~mask;
+        }
+    }
+
+    /** Whether none of the bits from {@code first} to {@code last} (inclusive) is set. */
+    private static boolean isClear(long[] words, int first, int last) {
+        int firstWord = first >>> 6;
+        int lastWord = last >>> 6;
+        long head = -1L << first;
+        long tail = -1L >>> (63 - (last & 63));
+        if (firstWord == lastWord) {
+            return (words[firstWord] & head & tail) == 0;
+        }
+        long booked = (words[firstWord] & head) | (words[lastWord] & tail);
+        for (int w = firstWord + 1; w < lastWord; w++) {
+            booked |= words[w];
+        }
+        return booked == 0;
+    }
+
+    // Rounded down to a whole word so rolling forward keeps words aligned to the same days.
+    private static long horizonStart(long today) {
+        return Math.floorDiv(today - DAYS_BEHIND, 64) * 64;
+    }
+
+    // Always take the lower stripe first so two moves in opposite directions cannot deadlock.
+    private void lockRooms(Long roomId, Long otherRoomId) {
+        int a = stripeOf(roomId);
+        int b = stripeOf(otherRoomId);
+        locks[Math.min(a, b)].lock();
+        if (a != b) {
+            locks[Math.max(a, b)].lock();
+        }
+    }
+
+    private void unlockRooms(Long roomId, Long otherRoomId) {
+        int a = stripeOf(roomId);
+        int b = stripeOf(otherRoomId);
+        if (a != b) {
+            locks[Math.max(a, b)].unlock();
+        }
+        locks[Math.min(a, b)].unlock();
+    }
+
+    private static int stripeOf(Long roomId) {
+        int hash = roomId == null ? 0 : Long.hashCode(roomId);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static boolean occupies(Booking booking) {
+        return booking.getRoom() != null
+                && booking.getCheckInDate() != null
+                && booking.getCheckOutDate() != null
+                && booking.getBookingStatus() != BookingStatusType.CANCELLED;
+    }
+
+    private static long firstNight(LocalDateTime checkInDate) {
+        return checkInDate.toLocalDate().toEpochDay();
+    }
+
+    // A same-day stay still occupies the room for one night.
+    private static long lastNightExclusive(long firstNight, LocalDateTime checkOutDate) {
+        return Math.max(checkOutDate.toLocalDate().toEpochDay(), firstNight + 1);
+    }
+
+    /** One property's stays and nights, by room id. */
+    private static final class Occupancy {
+        private final Map<Long, TreeMap<Long, Stay>> rooms = new ConcurrentHashMap<>();
+        private final Map<Long, Placement> placements = new ConcurrentHashMap<>();
+        private final Map<Long, Nights> nights = new ConcurrentHashMap<>();
+        private volatile long horizonStart;
+        // Only touched by refresh(), one at a time.
+        private OutboxCursor cursor = new OutboxCursor(0, null);
+        // Bookings with an uncommitted write on this instance, and how many.
+        private final Map<Long, Integer> inFlight = new ConcurrentHashMap<>();
+        // Bookings to reload on the next refresh.
+        private final Set<Long> retry = ConcurrentHashMap.newKeySet();
+
+        Occupancy(long horizonStart) {
+            this.horizonStart = horizonStart;
+        }
+    }
+
+    private record Stay(long end, Long bookingId) {
+    }
+
+    private record Placement(Long roomId, long from, long to) {
+    }
+
+    /** A room's booked nights, bit i for the night of epoch day start + i. */
+    private record Nights(long start, long[] words) {
+    }
+}
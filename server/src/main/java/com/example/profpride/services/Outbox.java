@@ -0,0 +1,60 @@
+package com.example.profpride.services;
+
+import com.example.profpride.enums.ChangeAction;
+import com.example.profpride.enums.EntityType;
+import com.example.profpride.models.OutboxEvent;
+import com.example.profpride.repositories.OutboxEventRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Records writes in outbox_event for ReadModelProjector. Must be called inside the
+ * transaction that makes the write, so the event commits or rolls back with it.
+ */
+@Component
+public class Outbox {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(EntityType entity, ChangeAction action, Long id) {
+        outboxEventRepository.save(new OutboxEvent(null, entity, id, action, Instant.now()));
+    }
+
+    /** Records every row changed by a bulk write, in one statement. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(EntityType entity, ChangeAction action, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        // Identity ids rule out insert batching, so copy the ids over in SQL instead.
+        entityManager.createQuery("insert into OutboxEvent (entity, entityId, action, occurredAt) "
+                        + "select :entity, e.id, :action, :now from " + entityName(entity) + " e where e.id in :ids")
+                .setParameter("entity", entity)
+                .setParameter("action", action)
+                .setParameter("now", Instant.now())
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    private static String entityName(EntityType entity) {
+        return switch (entity) {
+            case BOOKING -> "Booking";
+            case PAYMENT -> "Payment";
+            case EXPENSE -> "Expense";
+            case CUSTOMER -> "Customer";
+        };
+    }
+}
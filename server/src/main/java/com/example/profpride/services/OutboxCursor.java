@@ -0,0 +1,155 @@
+package com.example.profpride.services;
+
+import com.example.profpride.models.OutboxEvent;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A reader's position in outbox_event that does not lose events committing out of id
+ * order. Ids are handed out on insert, so an event can commit after one with a higher
+ * id was already read. The cursor still moves past every event read, but remembers the
+ * ids it skipped as gaps and reads them again each time until they show up. A gap
+ * still empty after the gap timeout is taken to be a rollback (or ids MySQL reserved
+ * for a bulk insert and never used). The timeout is measured on the reader's clock,
+ * so the writers' clocks do not matter.
+ *
+ * Use: read(), handle the events, then advance(). Not thread-safe.
+ */
+final class OutboxCursor {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxCursor.class);
+
+    // Beyond this the oldest gaps are given up early, to keep the cursor small.
+    private static final int MAX_GAPS = 64;
+
+    private long lastEventId;
+    private final List<Gap> gaps;
+    private List<OutboxEvent> late = List.of();
+    private List<OutboxEvent> next = List.of();
+    private int limit;
+
+    /** @param gaps as returned by {@link #gaps()}, or null */
+    OutboxCursor(long lastEventId, String gaps) {
+        this.lastEventId = lastEventId;
+        this.gaps = Gap.parse(gaps);
+    }
+
+    /**
+     * The events that have shown up in the gaps since the last read, followed by up to
+     * {@code limit} events after the last one read, in id order each.
+     */
+    List<OutboxEvent> read(EntityManager entityManager, int limit) {
+        this.limit = limit;
+        late = findIn(entityManager);
+        next = entityManager.createQuery("select e from OutboxEvent e where e.id > :id order by e.id", OutboxEvent.class)
+                .setParameter("id", lastEventId)
+                .setMaxResults(limit)
+                .getResultList();
+        if (late.isEmpty()) {
+            return next;
+        }
+        List<OutboxEvent> events = new ArrayList<>(late);
+        events.addAll(next);
+        return events;
+    }
+
+    /**
+     * Moves past the events the last read() returned and gives up gaps older than
+     * {@code gapTimeout}. Returns whether more events may be waiting.
+     */
+    boolean advance(Duration gapTimeout) {
+        long now = System.currentTimeMillis();
+        late.forEach(event -> fill(event.getId()));
+        for (OutboxEvent event : next) {
+            if (event.getId() > lastEventId + 1) {
+                // Not committed yet, or never will be.
+                gaps.add(new Gap(lastEventId + 1, event.getId() - 1, now));
+            }
+            lastEventId = event.getId();
+        }
+        gaps.removeIf(gap -> now - gap.seenAt() >= gapTimeout.toMillis());
+        while (gaps.size() > MAX_GAPS) {
+            Gap oldest = gaps.remove(0);
+            log.warn("Gave up waiting for outbox events {} to {}: too many gaps", oldest.from(), oldest.to());
+        }
+        boolean more = next.size() == limit;
+        late = List.of();
+        next = List.of();
+        return more;
+    }
+
+    long lastEventId() {
+        return lastEventId;
+    }
+
+    /** The ids still waited for, as "from-to@seenAt", comma separated, oldest first; null when none. */
+    String gaps() {
+        return gaps.isEmpty() ? null
+                : gaps.stream().map(gap -> gap.from() + "-" + gap.to() + "@" + gap.seenAt())
+                        .collect(Collectors.joining(","));
+    }
+
+    int gapCount() {
+        return gaps.size();
+    }
+
+    private List<OutboxEvent> findIn(EntityManager entityManager) {
+        if (gaps.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder query = new StringBuilder("select e from OutboxEvent e where ");
+        for (int i = 0; i < gaps.size(); i++) {
+            query.append(i > 0 ? " or " : "").append("e.id between :from").append(i).append(" and :to").append(i);
+        }
+        TypedQuery<OutboxEvent> late = entityManager.createQuery(query.append(" order by e.id").toString(),
+                OutboxEvent.class);
+        for (int i = 0; i < gaps.size(); i++) {
+            late.setParameter("from" + i, gaps.get(i).from()).setParameter("to" + i, gaps.get(i).to());
+        }
+        return late.getResultList();
+    }
+
+    // Takes the id out of the gap holding it, splitting the gap if need be.
+    private void fill(long id) {
+        for (int i = 0; i < gaps.size(); i++) {
+            Gap gap = gaps.get(i);
+            if (id < gap.from() || id > gap.to()) {
+                continue;
+            }
+            gaps.remove(i);
+            if (id < gap.to()) {
+                gaps.add(i, new Gap(id + 1, gap.to(), gap.seenAt()));
+            }
+            if (id > gap.from()) {
+                gaps.add(i, new Gap(gap.from(), id - 1, gap.seenAt()));
+            }
+            return;
+        }
+    }
+
+    /** Ids from {@code from} to {@code to} not seen yet, first skipped at {@code seenAt} (epoch millis). */
+    private record Gap(long from, long to, long seenAt) {
+
+        static List<Gap> parse(String gaps) {
+            List<Gap> parsed = new ArrayList<>();
+            if (gaps == null || gaps.isEmpty()) {
+                return parsed;
+            }
+            for (String gap : gaps.split(",")) {
+                int dash = gap.indexOf('-');
+                int at = gap.indexOf('@');
+                parsed.add(new Gap(Long.parseLong(gap.substring(0, dash)), Long.parseLong(gap.substring(dash + 1, at)),
+                        Long.parseLong(gap.substring(at + 1))));
+            }
+            return parsed;
+        }
+    }
+}
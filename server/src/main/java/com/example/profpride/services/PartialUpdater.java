@@ -0,0 +1,154 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dtos.PatchResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * PATCH support for versioned entities: writes the changed columns of one row with a
+ * single {@code UPDATE ... SET ..., version = version + 1 WHERE id = ? AND version = ?}.
+ *
+ * Nothing is loaded into the persistence context. When the update matches no row, one
+ * version lookup tells a missing row (404) from a stale version or a failed guard (409).
+ * Must run inside a transaction.
+ */
+@Component
+public class PartialUpdater {
+
+    public static final String VERSION = "version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Reads a PATCH body: the required {@code version} plus any of {@code allowed},
+     * converted to the entity's attribute types. A field sent as null is set to null.
+     */
+    public <T> Patch<T> parse(Class<T> entity, Long id, Map<String, Object> body, Set<String> allowed) {
+        Object version = body.get(VERSION);
+        if (!(version instanceof Number)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "version is required");
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : body.entrySet()) {
+            String name = field.getKey();
+            if (name.equals(VERSION)) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot patch " + name);
+            }
+            Class<?> type = entityManager.getMetamodel().entity(entity).getAttribute(name).getJavaType();
+            try {
+                values.put(name, objectMapper.convertValue(field.getValue(), type));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid value for " + name);
+            }
+        }
+        if (values.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nothing to patch");
+        }
+        return new Patch<>(entity, id, ((Number) version).longValue(), values);
+    }
+
+    public <T> PatchResult apply(Patch<T> patch) {
+        return apply(patch, null, null);
+    }
+
+    /**
+     * @param extra further SET clauses computed in SQL, e.g. a derived column; may be null
+     * @param guard further condition the row must meet; may be null
+     */
+    public <T> PatchResult apply(Patch<T> patch, Extra<T> extra, Guard<T> guard) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(patch.entity());
+        Root<T> root = update.from(patch.entity());
+        patch.values().forEach((name, value) -> assign(update, cb, root.get(name), value));
+        Path<Long> version = root.get(VERSION);
+        update.set(version, cb.sum(version, 1L));
+        if (extra != null) {
+            extra.set(update, root, cb);
+        }
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(root.get("id"), patch.id()));
+        where.add(cb.equal(version, patch.version()));
+        if (guard != null) {
+            where.add(guard.test().apply(root, cb));
+        }
+        update.where(where.toArray(new Predicate[0]));
+
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            throw failure(patch, guard);
+        }
+        return new PatchResult(patch.id(), patch.version() + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <Y> void assign(CriteriaUpdate<?> update, CriteriaBuilder cb, Path<Y> path, Object value) {
+        if (value != null) {
+            update.set(path, (Y) value);
+        } else {
+            update.set(path, cb.nullLiteral(path.getJavaType()));
+        }
+    }
+
+    private ResponseStatusException failure(Patch<?> patch, Guard<?> guard) {
+        List<Long> current = entityManager
+                .createQuery("select e.version from " + patch.entity().getSimpleName() + " e where e.id = :id",
+                        Long.class)
+                .setParameter("id", patch.id())
+                .getResultList();
+        String name = patch.entity().getSimpleName();
+        if (current.isEmpty()) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, name + " not found");
+        }
+        if (current.get(0) == null || current.get(0) != patch.version()) {
+            return new ResponseStatusException(HttpStatus.CONFLICT,
+                    name + " was changed by someone else; current version is " + current.get(0));
+        }
+        // The version matched, so the guard is what excluded the row.
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                guard != null ? guard.message() : name + " was changed by someone else");
+    }
+
+    public record Patch<T>(Class<T> entity, Long id, long version, Map<String, Object> values) {
+        public boolean has(String field) {
+            return values.containsKey(field);
+        }
+
+        public Object get(String field) {
+            return values.get(field);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Extra<T> {
+        void set(CriteriaUpdate<T> update, Root<T> root, CriteriaBuilder cb);
+    }
+
+    /** A WHERE condition the row must also meet, and the 409 reason when it does not. */
+    public record Guard<T>(String message, BiFunction<Root<T>, CriteriaBuilder, Predicate> test) {
+    }
+}
@@ -1,26 +1,61 @@
 package com.example.profpride.services;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.dtos.CursorPage;
+import com.example.profpride.dtos.PatchResult;
+import com.example.profpride.enums.ChangeAction;
+import com.example.profpride.enums.EntityType;
 import com.example.profpride.enums.PaymentMode;
 import com.example.profpride.models.Booking;
 import com.example.profpride.models.Payment;
 import com.example.profpride.repositories.BookingRepository;
 import com.example.profpride.repositories.PaymentRepository;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class PaymentService {
 
+    /** Fields a client may pick with {@code fields=} on the payment list endpoints. */
+    public static final Set<String> FIELDS = Set.of("id", "amount", "createdAt", "mode", "booking.id",
+            "booking.checkInDate", "booking.checkOutDate", "booking.bookingStatus", "booking.room.roomNumber",
+            "booking.customer.name");
+
+    public static final Set<String> PATCH_FIELDS = Set.of("amount", "mode", "createdAt");
+
     @Autowired
     private PaymentRepository paymentRepository;
 
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private FieldProjection fieldProjection;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Transactional
     public Payment createPayment(Map<String, Object> payload) {
         Integer amount = (Integer) payload.get("amount");
         LocalDateTime createdAt = LocalDateTime.parse((String) payload.get("createdAt"));
@@ -31,34 +66,100 @@ public class PaymentService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
-        Payment payment = new Payment(null, amount, createdAt, mode, booking);
-
-        // You may add business logic here, like updating the booking's due amount
+        Payment payment = new Payment(null, amount, createdAt, mode, booking, 0);
 
-        return paymentRepository.save(payment);
+        Payment savedPayment = paymentRepository.save(payment);
+        bookingRepository.applyPayment(bookingId, amountOf(savedPayment));
+        outbox.record(EntityType.PAYMENT, ChangeAction.CREATED, savedPayment.getId());
+        changeFeed.publish(ChangeFeed.PAYMENT, ChangeAction.CREATED, savedPayment.getId());
+        return savedPayment;
     }
 
     public List<Payment> getAllPayments() {
         return paymentRepository.findAll();
     }
 
+    public List<Map<String, Object>> getPaymentFields(String fields) {
+        return fieldProjection.select(Payment.class, FieldProjection.parse(fields, FIELDS), null,
+                Sort.by("id"), 0);
+    }
+
+    public CursorPage<Payment> getPaymentPage(Long bookingId, PaymentMode mode, LocalDateTime from, LocalDateTime to,
+            String sort, String cursor, Integer size) {
+        return keysetPaginator.page(paymentRepository, filter(bookingId, mode, from, to),
+                sort, Set.of("createdAt"), cursor, size);
+    }
+
+    public CursorPage<Map<String, Object>> getPaymentPage(String fields, Long bookingId, PaymentMode mode,
+            LocalDateTime from, LocalDateTime to, String sort, String cursor, Integer size) {
+        return keysetPaginator.page(Payment.class, FieldProjection.parse(fields, FIELDS),
+                filter(bookingId, mode, from, to), sort, Set.of("createdAt"), cursor, size);
+    }
+
+    private static Specification<Payment> filter(Long bookingId, PaymentMode mode, LocalDateTime from,
+            LocalDateTime to) {
+        List<Specification<Payment>> filters = new ArrayList<>();
+        if (bookingId != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("booking").get("id"), bookingId));
+        }
+        if (mode != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("mode"), mode));
+        }
+        if (from != null) {
+            filters.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from));
+        }
+        if (to != null) {
+            filters.add((root, query, cb) -> cb.lessThan(root.get("createdAt"), to));
+        }
+        return Specification.allOf(filters);
+    }
+
     public Optional<Payment> getPaymentById(Long id) {
         return paymentRepository.findById(id);
     }
 
+    @Transactional
     public Payment updatePayment(Long id, Payment updatedPayment) {
         return paymentRepository.findById(id).map(payment -> {
+            long previousAmount = amountOf(payment);
             payment.setAmount(updatedPayment.getAmount());
             payment.setMode(updatedPayment.getMode());
             payment.setCreatedAt(updatedPayment.getCreatedAt());
-            return paymentRepository.save(payment);
+            Payment savedPayment = paymentRepository.save(payment);
+            bookingRepository.applyPayment(payment.getBooking().getId(), amountOf(savedPayment) - previousAmount);
+            outbox.record(EntityType.PAYMENT, ChangeAction.UPDATED, id);
+            changeFeed.publish(ChangeFeed.PAYMENT, ChangeAction.UPDATED, id);
+            return savedPayment;
         }).orElse(null);
     }
 
+    @Transactional
+    public PatchResult patchPayment(Long id, Map<String, Object> changes) {
+        PartialUpdater.Patch<Payment> patch = partialUpdater.parse(Payment.class, id, changes, PATCH_FIELDS);
+        if (patch.has("amount")) {
+            // Runs first, while the old amount is still stored; if the patch below fails
+            // the transaction takes this back too.
+            Integer amount = (Integer) patch.get("amount");
+            bookingRepository.applyPaymentChange(id, patch.version(), amount != null ? amount : 0L);
+        }
+        PatchResult result = partialUpdater.apply(patch);
+        outbox.record(EntityType.PAYMENT, ChangeAction.UPDATED, id);
+        changeFeed.publish(ChangeFeed.PAYMENT, ChangeAction.UPDATED, id);
+        return result;
+    }
+
+    @Transactional
     public boolean deletePayment(Long id) {
         return paymentRepository.findById(id).map(payment -> {
             paymentRepository.delete(payment);
+            bookingRepository.applyPayment(payment.getBooking().getId(), -amountOf(payment));
+            outbox.record(EntityType.PAYMENT, ChangeAction.DELETED, id);
+            changeFeed.publish(ChangeFeed.PAYMENT, ChangeAction.DELETED, id);
             return true;
         }).orElse(false);
     }
+
+    private static long amountOf(Payment payment) {
+        return payment.getAmount() != null ? payment.getAmount() : 0L;
+    }
 }
@@ -0,0 +1,312 @@
+package com.example.profpride.services;
+
+import com.example.profpride.configs.CacheRegions;
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.configs.PropertyContext;
+import com.example.profpride.dtos.Quote;
+import com.example.profpride.dtos.QuoteRequest;
+import com.example.profpride.enums.BathroomType;
+import com.example.profpride.enums.BookingDurationType;
+import com.example.profpride.enums.RoomType;
+import com.example.profpride.models.Room;
+import com.example.profpride.models.RoomCost;
+import com.example.profpride.models.SeasonalRate;
+import com.example.profpride.repositories.RoomCostRepository;
+import com.example.profpride.repositories.RoomRepository;
+import com.example.profpride.repositories.SeasonalRateRepository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Prices stays from the rate card (RoomCost) and seasonal rates, compiled into a table
+ * indexed by room type, bathroom type and duration. Each entry holds the card's cost
+ * and the seasonal rates as sorted, non-overlapping runs of epoch days, so pricing a
+ * stay only walks the runs it overlaps and allocates nothing.
+ *
+ * Stays of MONTHLY_NIGHTS nights or more are priced at the MONTHLY rate, which is per
+ * MONTHLY_NIGHTS nights and pro-rated; shorter ones at the DAILY rate per night. When a
+ * type only has one of the two, that one prices every stay. Where seasonal rates
+ * overlap, the one covering fewer nights wins, then the newer one.
+ *
+ * The table is tagged with the rate card region's version (see CacheVersionService) and
+ * rebuilt and swapped in whole on the first price after the version moves: right after
+ * a RoomCostService write commits on this instance, within a poll interval on others.
+ * Each property has its own rate card and so its own table.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class PricingEngine {
+
+    public static final int MONTHLY_NIGHTS = 30;
+
+    /** Returned when the rate card has no cost for the room's type. */
+    public static final long UNPRICED = -1;
+
+    public static final int MAX_QUOTES = 1000;
+
+    // Yearly seasonal rates are laid out for the years around the build; the table is
+    // rebuilt at least this often so that window keeps moving.
+    private static final int YEARS_BEHIND = 2;
+    private static final int YEARS_AHEAD = 5;
+    private static final long MAX_TABLE_AGE_MS = Duration.ofDays(30).toMillis();
+
+    @Autowired
+    private RoomCostRepository roomCostRepository;
+
+    @Autowired
+    private SeasonalRateRepository seasonalRateRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private CacheVersionService cacheVersionService;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+
+    /** The price of the nights from checkInDay to checkOutDay (epoch days), or UNPRICED. */
+    public long price(RoomType roomType, BathroomType bathroomType, long checkInDay, long checkOutDay) {
+        return price(table(), roomType, bathroomType, checkInDay, checkOutDay);
+    }
+
+    /** Prices every request against the same table, in request order. */
+    public List<Quote> quote(List<QuoteRequest> requests) {
+        if (requests.size() > MAX_QUOTES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_QUOTES + " quotes per request");
+        }
+        Table current = table();
+        Map<Long, Room> rooms = null;
+        List<Quote> quotes = new ArrayList<>(requests.size());
+        for (QuoteRequest request : requests) {
+            if (request.getFrom() == null || request.getTo() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every quote needs from and to");
+            }
+            RoomType roomType = request.getRoomType();
+            BathroomType bathroomType = request.getBathroomType();
+            if (request.getRoomId() != null) {
+                if (rooms == null) {
+                    // the cached room list, so no query once warm
+                    rooms = roomRepository.findAll().stream().collect(Collectors.toMap(Room::getId, Function.identity()));
+                }
+                Room room = rooms.get(request.getRoomId());
+                if (room == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown roomId " + request.getRoomId());
+                }
+                roomType = room.getRoomType();
+                bathroomType = room.getBathroomType();
+            }
+            long checkIn = request.getFrom().toEpochDay();
+            long checkOut = request.getTo().toEpochDay();
+            long total = price(current, roomType, bathroomType, checkIn, checkOut);
+            quotes.add(new Quote(request.getRoomId(), roomType, bathroomType, request.getFrom(), request.getTo(),
+                    (int) Math.max(0, checkOut - checkIn), total == UNPRICED ? null : total));
+        }
+        return quotes;
+    }
+
+    private static long price(Table table, RoomType roomType, BathroomType bathroomType, long checkIn, long checkOut) {
+        if (checkOut <= checkIn) {
+            return 0;
+        }
+        if (roomType == null || bathroomType == null) {
+            return UNPRICED;
+        }
+        EnumMap<BathroomType, EnumMap<BookingDurationType, Rates>> byBathroom = table.rates().get(roomType);
+        EnumMap<BookingDurationType, Rates> byDuration = byBathroom != null ? byBathroom.get(bathroomType) : null;
+        if (byDuration == null) {
+            return UNPRICED;
+        }
+        boolean monthly = checkOut - checkIn >= MONTHLY_NIGHTS;
+        long total = total(byDuration, monthly ? BookingDurationType.MONTHLY : BookingDurationType.DAILY, checkIn, checkOut);
+        if (total == UNPRICED) {
+            total = total(byDuration, monthly ? BookingDurationType.DAILY : BookingDurationType.MONTHLY, checkIn, checkOut);
+        }
+        return total;
+    }
+
+    private static long total(EnumMap<BookingDurationType, Rates> byDuration, BookingDurationType duration,
+            long checkIn, long checkOut) {
+        Rates rates = byDuration.get(duration);
+        long sum = rates != null ? rates.sum(checkIn, checkOut) : UNPRICED;
+        if (sum == UNPRICED || duration == BookingDurationType.DAILY) {
+            return sum;
+        }
+        return (sum + MONTHLY_NIGHTS / 2) / MONTHLY_NIGHTS;
+    }
+
+    private Table table() {
+        CacheVersionService.Stamp stamp = cacheVersionService.getStamp(CacheRegions.ROOM_COSTS);
+        // -1 until the first poll; the table built then is replaced once a version is known.
+        long version = stamp != null ? stamp.version() : -1;
+        String property = PropertyContext.current();
+        Table current = tables.get(property);
+        if (current != null && current.version() == version && System.currentTimeMillis() < current.expiresAt()) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            current = tables.get(property);
+            if (current == null || current.version() != version || System.currentTimeMillis() >= current.expiresAt()) {
+                // The version was read before loading, so the table is never older than its tag.
+                current = build(version);
+                tables.put(property, current);
+            }
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Table build(long version) {
+        List<RoomCost> costs = new ArrayList<>(roomCostRepository.findAll());
+        costs.sort(Comparator.comparing(RoomCost::getId));
+        List<SeasonalRate> seasonal = seasonalRateRepository.findAll();
+        int year = LocalDate.now().getYear();
+
+        EnumMap<RoomType, EnumMap<BathroomType, EnumMap<BookingDurationType, Rates>>> rates = new EnumMap<>(RoomType.class);
+        for (RoomType roomType : RoomType.values()) {
+            for (BathroomType bathroomType : BathroomType.values()) {
+                for (BookingDurationType duration : BookingDurationType.values()) {
+                    // The first card wins if there are several, as it did before.
+                    int base = costs.stream()
+                            .filter(cost -> cost.getRoomType() == roomType && cost.getBathroomType() == bathroomType
+                                    && cost.getBookingDurationType() == duration && cost.getCost() != null)
+                            .findFirst().map(RoomCost::getCost).orElse(-1);
+                    List<Run> runs = new ArrayList<>();
+                    for (SeasonalRate rate : seasonal) {
+                        if (applies(rate, roomType, bathroomType, duration)) {
+                            addRuns(runs, rate, year);
+                        }
+                    }
+                    if (base < 0 && runs.isEmpty()) {
+                        continue;
+                    }
+                    rates.computeIfAbsent(roomType, t -> new EnumMap<>(BathroomType.class))
+                            .computeIfAbsent(bathroomType, t -> new EnumMap<>(BookingDurationType.class))
+                            .put(duration, Rates.of(base, runs));
+                }
+            }
+        }
+        return new Table(version, System.currentTimeMillis() + MAX_TABLE_AGE_MS, rates);
+    }
+
+    private static boolean applies(SeasonalRate rate, RoomType roomType, BathroomType bathroomType,
+            BookingDurationType duration) {
+        return rate.getCost() != null && rate.getStartDate() != null && rate.getEndDate() != null
+                && !rate.getEndDate().isBefore(rate.getStartDate())
+                && (rate.getRoomType() == null || rate.getRoomType() == roomType)
+                && (rate.getBathroomType() == null || rate.getBathroomType() == bathroomType)
+                && (rate.getBookingDurationType() == null || rate.getBookingDurationType() == duration);
+    }
+
+    private static void addRuns(List<Run> runs, SeasonalRate rate, int year) {
+        long id = rate.getId() != null ? rate.getId() : 0;
+        if (!rate.isYearly()) {
+            runs.add(new Run(rate.getStartDate().toEpochDay(), rate.getEndDate().toEpochDay() + 1, rate.getCost(), id));
+            return;
+        }
+        for (int y = year - YEARS_BEHIND; y <= year + YEARS_AHEAD; y++) {
+            int shift = y - rate.getStartDate().getYear();
+            runs.add(new Run(rate.getStartDate().plusYears(shift).toEpochDay(),
+                    rate.getEndDate().plusYears(shift).toEpochDay() + 1, rate.getCost(), id));
+        }
+    }
+
+    /** A seasonal rate's nights, from start to end (exclusive) in epoch days. */
+    private record Run(long start, long end, int cost, long id) {
+    }
+
+    /**
+     * The card's cost (negative when there is none) and the seasonal runs, flattened so
+     * that runs[i] covers starts[i] to ends[i] (exclusive) and none overlap.
+     */
+    private record Rates(int base, long[] starts, long[] ends, int[] costs) {
+
+        static Rates of(int base, List<Run> runs) {
+            TreeSet<Long> bounds = new TreeSet<>();
+            runs.forEach(run -> {
+                bounds.add(run.start());
+                bounds.add(run.end());
+            });
+            Comparator<Run> precedence = Comparator.comparingLong((Run run) -> run.end() - run.start())
+                    .thenComparing(Comparator.comparingLong(Run::id).reversed());
+            List<long[]> flat = new ArrayList<>();
+            Long from = null;
+            for (long bound : bounds) {
+                if (from != null) {
+                    long start = from;
+                    runs.stream()
+                            .filter(run -> run.start() <= start && run.end() >= bound)
+                            .min(precedence)
+                            .ifPresent(run -> {
+                                long[] last = flat.isEmpty() ? null : flat.get(flat.size() - 1);
+                                if (last != null && last[1] == start && last[2] == run.cost()) {
+                                    last[1] = bound;
+                                } else {
+                                    flat.add(new long[] { start, bound, run.cost() });
+                                }
+                            });
+                }
+                from = bound;
+            }
+            long[] starts = new long[flat.size()];
+            long[] ends = new long[flat.size()];
+            int[] costs = new int[flat.size()];
+            for (int i = 0; i < flat.size(); i++) {
+                starts[i] = flat.get(i)[0];
+                ends[i] = flat.get(i)[1];
+                costs[i] = (int) flat.get(i)[2];
+            }
+            return new Rates(base, starts, ends, costs);
+        }
+
+        /** Cost times nights from checkIn to checkOut, or UNPRICED if a night has no cost. */
+        long sum(long checkIn, long checkOut) {
+            long total = 0;
+            long day = checkIn;
+            // the first run ending after check-in
+            int i = Arrays.binarySearch(ends, checkIn);
+            i = i >= 0 ? i + 1 : -i - 1;
+            while (day < checkOut) {
+                long until;
+                int cost;
+                if (i < starts.length && starts[i] <= day) {
+                    until = Math.min(ends[i], checkOut);
+                    cost = costs[i++];
+                } else {
+                    if (base < 0) {
+                        return UNPRICED;
+                    }
+                    until = i < starts.length ? Math.min(starts[i], checkOut) : checkOut;
+                    cost = base;
+                }
+                total += (long) cost * (until - day);
+                day = until;
+            }
+            return total;
+        }
+    }
+
+    private record Table(long version, long expiresAt,
+            EnumMap<RoomType, EnumMap<BathroomType, EnumMap<BookingDurationType, Rates>>> rates) {
+    }
+}
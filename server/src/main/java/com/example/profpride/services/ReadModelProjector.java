@@ -0,0 +1,649 @@
+package com.example.profpride.services;
+
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.configs.PropertyContext;
+import com.example.profpride.enums.EntityType;
+import com.example.profpride.enums.RollupPeriod;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.BookingView;
+import com.example.profpride.models.DailyRevenue;
+import com.example.profpride.models.OutboxEvent;
+import com.example.profpride.models.PnlRollup;
+import com.example.profpride.models.ProjectionCheckpoint;
+import com.example.profpride.models.RevenueEntry;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.BookingViewRepository;
+import com.example.profpride.repositories.DailyRevenueRepository;
+import com.example.profpride.repositories.ExpenseRepository;
+import com.example.profpride.repositories.OutboxEventRepository;
+import com.example.profpride.repositories.PaymentRepository;
+import com.example.profpride.repositories.PnlRollupRepository;
+import com.example.profpride.repositories.ProjectionCheckpointRepository;
+import com.example.profpride.repositories.RevenueEntryRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the read models (booking_view, daily_revenue and pnl_rollup) up to date from
+ * the outbox, so the dashboard and reports read them instead of joining and summing
+ * bookings, payments and expenses.
+ *
+ * Every pass drains outbox_event in id order and in batches, one transaction each,
+ * holding the checkpoint row lock so only one instance projects at a time. An event
+ * does not carry the change itself: the projector re-reads the row's current state and
+ * rewrites what depends on it. Later events for the same booking therefore always win,
+ * and projecting an event twice changes nothing. Payments and expenses are counted into
+ * daily_revenue and pnl_rollup through revenue_entry, which remembers what each row
+ * last contributed.
+ *
+ * The checkpoint row holds an OutboxCursor, so an event that commits after one with a
+ * higher id was read is still projected once it shows up. replay() rebuilds everything
+ * from the source tables; rebuildRevenue() only the payment and expense totals, reading
+ * the tables in parallel id windows.
+ *
+ * Room numbers are copied when a booking is projected; renumbering a room shows up with
+ * the booking's next change or a replay.
+ *
+ * Each property's outbox and read models live in its own database, so the scheduled
+ * passes run once per property.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ReadModelProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadModelProjector.class);
+
+    public static final String NAME = "read-models";
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PropertyContext propertyContext;
+
+    @Autowired
+    private ProjectionCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+
+    @Autowired
+    private DailyRevenueRepository dailyRevenueRepository;
+
+    @Autowired
+    private RevenueEntryRepository revenueEntryRepository;
+
+    @Autowired
+    private PnlRollupRepository pnlRollupRepository;
+
+    @Value("${profpride.projector.batch-size:500}")
+    private int batchSize;
+
+    @Value("${profpride.projector.gap-timeout:10m}")
+    private Duration gapTimeout;
+
+    @Value("${profpride.projector.retention:7d}")
+    private Duration retention;
+
+    // Each one holds a database connection while it reads.
+    @Value("${profpride.projector.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private final TransactionTemplate transaction;
+    private ExecutorService rebuildPool;
+
+    public ReadModelProjector(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void start() {
+        rebuildPool = Executors.newFixedThreadPool(rebuildThreads,
+                Thread.ofPlatform().name("projector-rebuild-", 1).daemon().factory());
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuildPool.shutdownNow();
+    }
+
+    /** Creates the checkpoint on first start and builds the read models from existing data. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void register() {
+        propertyContext.forEach(this::registerProperty);
+    }
+
+    private void registerProperty() {
+        boolean created;
+        try {
+            created = Boolean.TRUE.equals(transaction.execute(tx -> {
+                if (checkpointRepository.existsById(NAME)) {
+                    return false;
+                }
+                checkpointRepository.save(new ProjectionCheckpoint(NAME, 0L, null, Instant.now()));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // another instance created the row first and builds the read models
+            created = false;
+        }
+        if (created) {
+            replay();
+        } else if (revenueEntryRepository.existsByCategoryIsNull()) {
+            // Read models from before pnl_rollup: their revenue entries have no category.
+            rebuildRevenue();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${profpride.projector.interval-ms:1000}")
+    public void project() {
+        propertyContext.forEach(() -> {
+            try {
+                while (Boolean.TRUE.equals(transaction.execute(tx -> projectBatch()))) {
+                    // a full batch moved the checkpoint, so more may be waiting
+                }
+            } catch (RuntimeException e) {
+                // One property's database being down must not hold up the others.
+                log.warn("Could not project read models of property {}", PropertyContext.current(), e);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the read models from the bookings, payments and expenses tables. The
+     * checkpoint stays where it is: events after it are projected again afterwards, which
+     * changes nothing for those the rebuild already saw.
+     */
+    public Map<String, Object> replay() {
+        long started = System.nanoTime();
+        Map<String, Object> result = transaction.execute(tx -> {
+            ProjectionCheckpoint checkpoint = lockCheckpoint();
+            bookingViewRepository.deleteAllInBatch();
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("bookings", projectAllBookings());
+            recountRevenue(counts);
+            counts.put("lastEventId", checkpoint.getLastEventId());
+            return counts;
+        });
+        log.info("Rebuilt read models in {} ms: {}", (System.nanoTime() - started) / 1_000_000, result);
+        return result;
+    }
+
+    /**
+     * Rebuilds revenue_entry, daily_revenue and pnl_rollup from the payments and
+     * expenses tables. Events waiting in the outbox are projected afterwards as usual.
+     */
+    public Map<String, Object> rebuildRevenue() {
+        long started = System.nanoTime();
+        Map<String, Object> result = transaction.execute(tx -> {
+            lockCheckpoint();
+            Map<String, Object> counts = new LinkedHashMap<>();
+            recountRevenue(counts);
+            return counts;
+        });
+        log.info("Rebuilt revenue totals in {} ms: {}", (System.nanoTime() - started) / 1_000_000, result);
+        return result;
+    }
+
+    public Map<String, Object> getStatus() {
+        ProjectionCheckpoint checkpoint = checkpointRepository.findById(NAME).orElse(null);
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("name", NAME);
+        if (checkpoint != null) {
+            status.put("lastEventId", checkpoint.getLastEventId());
+            status.put("gaps", new OutboxCursor(checkpoint.getLastEventId(), checkpoint.getGaps()).gapCount());
+            status.put("updatedAt", checkpoint.getUpdatedAt());
+            status.put("pending", outboxEventRepository.countByIdGreaterThan(checkpoint.getLastEventId()));
+        }
+        return status;
+    }
+
+    // Projected events stay for a while to help when something looks off.
+    @Scheduled(cron = "${profpride.projector.prune-cron:0 30 3 * * *}")
+    public void prune() {
+        propertyContext.forEach(() -> transaction.executeWithoutResult(tx ->
+                checkpointRepository.findById(NAME).ifPresent(checkpoint -> {
+                    int pruned = outboxEventRepository.prune(checkpoint.getLastEventId(),
+                            Instant.now().minus(retention));
+                    if (pruned > 0) {
+                        log.info("Pruned {} projected outbox events of property {}", pruned,
+                                PropertyContext.current());
+                    }
+                })));
+    }
+
+    // Returns whether another batch may be waiting.
+    private boolean projectBatch() {
+        ProjectionCheckpoint checkpoint = checkpointRepository.lock(NAME).orElse(null);
+        if (checkpoint == null) {
+            return false; // not registered yet
+        }
+        OutboxCursor cursor = new OutboxCursor(checkpoint.getLastEventId(), checkpoint.getGaps());
+        List<OutboxEvent> events = cursor.read(entityManager, batchSize);
+        if (!events.isEmpty()) {
+            apply(events);
+        }
+        boolean more = cursor.advance(gapTimeout);
+        if (cursor.lastEventId() == checkpoint.getLastEventId()
+                && Objects.equals(cursor.gaps(), checkpoint.getGaps())) {
+            return false;
+        }
+        checkpointRepository.advance(NAME, cursor.lastEventId(), cursor.gaps(), Instant.now());
+        return more;
+    }
+
+    private void apply(List<OutboxEvent> events) {
+        Set<Long> bookings = new HashSet<>();
+        Set<Long> payments = new HashSet<>();
+        Set<Long> expenses = new HashSet<>();
+        Set<Long> customers = new HashSet<>();
+        boolean allBookings = false;
+        for (OutboxEvent event : events) {
+            Long id = event.getEntityId();
+            switch (event.getEntity()) {
+                case BOOKING -> {
+                    if (id == null) {
+                        allBookings = true;
+                    } else {
+                        bookings.add(id);
+                    }
+                }
+                case PAYMENT -> payments.add(id);
+                case EXPENSE -> expenses.add(id);
+                case CUSTOMER -> customers.add(id);
+            }
+        }
+
+        Revenue revenue = new Revenue();
+        if (!payments.isEmpty()) {
+            List<Entry> current = paymentEntries(paymentRepository.findRowsByIdIn(payments));
+            Map<Long, RevenueEntry> counted = counted(EntityType.PAYMENT, payments);
+            // Both the booking the payment is on and the one it was counted under.
+            counted.values().forEach(entry -> bookings.add(entry.getBookingId()));
+            current.forEach(entry -> bookings.add(entry.bookingId()));
+            count(EntityType.PAYMENT, current, counted, revenue);
+            removeGone(counted, revenue);
+        }
+        if (!expenses.isEmpty()) {
+            Map<Long, RevenueEntry> counted = counted(EntityType.EXPENSE, expenses);
+            count(EntityType.EXPENSE, expenseEntries(expenseRepository.findRowsByIdIn(expenses)), counted, revenue);
+            removeGone(counted, revenue);
+        }
+        revenue.apply();
+
+        if (!customers.isEmpty()) {
+            bookings.addAll(bookingRepository.findIdsByCustomerIdIn(customers));
+        }
+        if (allBookings) {
+            bookingViewRepository.deleteAllInBatch();
+            projectAllBookings();
+        } else {
+            projectBookings(bookings);
+        }
+    }
+
+    private void recountRevenue(Map<String, Object> counts) {
+        revenueEntryRepository.deleteAllInBatch();
+        dailyRevenueRepository.deleteAllInBatch();
+        pnlRollupRepository.deleteAllInBatch();
+        Revenue revenue = new Revenue();
+        counts.put("payments", scan(EntityType.PAYMENT, paymentRepository.findMinId(), paymentRepository.findMaxId(),
+                (from, to) -> paymentEntries(paymentRepository.findRowsBetween(from, to)), revenue));
+        counts.put("expenses", scan(EntityType.EXPENSE, expenseRepository.findMinId(), expenseRepository.findMaxId(),
+                (from, to) -> expenseEntries(expenseRepository.findRowsBetween(from, to)), revenue));
+        revenue.apply();
+    }
+
+    /**
+     * Counts every row of one source into {@code revenue}, for a rebuild. The rebuild
+     * threads read and total the rows in id windows of CHUNK_SIZE, each window in its own
+     * read-only transaction; this thread stores their revenue entries and merges their
+     * totals in window order, with at most two windows per thread outstanding.
+     */
+    private int scan(EntityType source, Long minId, Long maxId, BiFunction<Long, Long, List<Entry>> read,
+            Revenue revenue) {
+        if (minId == null) {
+            return 0;
+        }
+        String property = PropertyContext.current();
+        Deque<Future<Window>> pending = new ArrayDeque<>();
+        int counted = 0;
+        long next = minId;
+        try {
+            while (next <= maxId || !pending.isEmpty()) {
+                if (next <= maxId && pending.size() < 2 * rebuildThreads) {
+                    long from = next;
+                    long to = Math.min(from + CHUNK_SIZE - 1, maxId);
+                    pending.addLast(rebuildPool.submit(() -> {
+                        try (PropertyContext.Scope scope = PropertyContext.enter(property)) {
+                            return window(source, read.apply(from, to));
+                        }
+                    }));
+                    next = to + 1;
+                    continue;
+                }
+                Window window = join(pending.removeFirst());
+                for (Entry row : window.entries()) {
+                    if (row.day() != null) {
+                        entityManager.persist(new RevenueEntry(source, row.id(), row.day(), row.amount(),
+                                row.category(), row.bookingId()));
+                    }
+                }
+                revenue.merge(window.totals());
+                counted += window.entries().size();
+                flushAndClear();
+            }
+        } finally {
+            pending.forEach(window -> window.cancel(true));
+        }
+        return counted;
+    }
+
+    private Window window(EntityType source, List<Entry> rows) {
+        Revenue totals = new Revenue();
+        rows.forEach(row -> totals.add(source, row.day(), row.category(), row.amount(), 1));
+        return new Window(rows, totals);
+    }
+
+    private static Window join(Future<Window> window) {
+        try {
+            return window.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding read models", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not read rows for the rebuild", e.getCause());
+        }
+    }
+
+    private int projectAllBookings() {
+        int projected = 0;
+        List<Booking> chunk;
+        long after = 0;
+        while (!(chunk = bookingRepository.findWithPartiesByIdGreaterThanOrderById(after,
+                PageRequest.of(0, CHUNK_SIZE))).isEmpty()) {
+            chunk.forEach(booking -> entityManager.persist(view(new BookingView(), booking)));
+            projected += chunk.size();
+            after = chunk.get(chunk.size() - 1).getId();
+            flushAndClear();
+        }
+        return projected;
+    }
+
+    private void projectBookings(Set<Long> ids) {
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, BookingView> views = bookingViewRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(BookingView::getBookingId, Function.identity()));
+        for (Booking booking : bookingRepository.findWithPartiesByIdIn(ids)) {
+            BookingView view = views.remove(booking.getId());
+            if (view != null) {
+                view(view, booking);
+            } else {
+                entityManager.persist(view(new BookingView(), booking));
+            }
+        }
+        // Whatever is left belongs to deleted bookings.
+        bookingViewRepository.deleteAllInBatch(views.values());
+    }
+
+    private static BookingView view(BookingView view, Booking booking) {
+        view.setBookingId(booking.getId());
+        view.setRoomId(booking.getRoom() != null ? booking.getRoom().getId() : null);
+        view.setRoomNumber(booking.getRoom() != null ? booking.getRoom().getRoomNumber() : null);
+        view.setCustomerId(booking.getCustomer() != null ? booking.getCustomer().getId() : null);
+        view.setCustomerName(booking.getCustomer() != null ? booking.getCustomer().getName() : null);
+        view.setCustomerPhoneNumber(booking.getCustomer() != null ? booking.getCustomer().getPhoneNumber() : null);
+        view.setCheckInDate(booking.getCheckInDate());
+        view.setCheckOutDate(booking.getCheckOutDate());
+        view.setBookingStatus(booking.getBookingStatus());
+        view.setDueAmount(booking.getDueAmount());
+        view.setPaidAmount(booking.getPaidAmount());
+        view.setBalance(booking.getBalance());
+        return view;
+    }
+
+    private Map<Long, RevenueEntry> counted(EntityType source, Collection<Long> ids) {
+        return revenueEntryRepository.findBySourceAndSourceIdIn(source, ids).stream()
+                .collect(Collectors.toMap(RevenueEntry::getSourceId, Function.identity()));
+    }
+
+    /**
+     * Moves each row's contribution from where it was counted (if anywhere) to its
+     * current day and amount. Rows found in {@code counted} are taken out of it.
+     */
+    private void count(EntityType source, List<Entry> current, Map<Long, RevenueEntry> counted, Revenue revenue) {
+        for (Entry row : current) {
+            RevenueEntry entry = counted.isEmpty() ? null : counted.remove(row.id());
+            if (entry != null) {
+                revenue.add(source, entry.getDay(), entry.getCategory(), -entry.getAmount(), -1);
+            }
+            if (row.day() == null) {
+                if (entry != null) {
+                    revenueEntryRepository.delete(entry);
+                }
+                continue;
+            }
+            revenue.add(source, row.day(), row.category(), row.amount(), 1);
+            if (entry != null) {
+                entry.setDay(row.day());
+                entry.setAmount(row.amount());
+                entry.setCategory(row.category());
+                entry.setBookingId(row.bookingId());
+            } else {
+                entityManager.persist(new RevenueEntry(source, row.id(), row.day(), row.amount(), row.category(),
+                        row.bookingId()));
+            }
+        }
+    }
+
+    private void removeGone(Map<Long, RevenueEntry> counted, Revenue revenue) {
+        for (RevenueEntry entry : counted.values()) {
+            revenue.add(entry.getSource(), entry.getDay(), entry.getCategory(), -entry.getAmount(), -1);
+        }
+        revenueEntryRepository.deleteAllInBatch(counted.values());
+    }
+
+    private static List<Entry> paymentEntries(List<PaymentRepository.ExportRow> rows) {
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (PaymentRepository.ExportRow row : rows) {
+            entries.add(new Entry(row.getId(), day(row.getCreatedAt()), amount(row.getAmount()),
+                    row.getMode() != null ? row.getMode().name() : "", row.getBookingId()));
+        }
+        return entries;
+    }
+
+    private static List<Entry> expenseEntries(List<ExpenseRepository.ExportRow> rows) {
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (ExpenseRepository.ExportRow row : rows) {
+            entries.add(new Entry(row.getId(), day(row.getCreatedAt()), amount(row.getAmount()),
+                    category(row.getName()), null));
+        }
+        return entries;
+    }
+
+    private static LocalDate day(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt.toLocalDate() : null;
+    }
+
+    private static long amount(Integer amount) {
+        return amount != null ? amount : 0L;
+    }
+
+    // Expense names are typed by hand; "Soap" and "soap " are the same line in a report
+    // (and the same key to a case-insensitive collation).
+    private static String category(String name) {
+        if (name == null) {
+            return "";
+        }
+        String category = name.strip().toLowerCase(Locale.ROOT);
+        return category.length() > 255 ? category.substring(0, 255) : category;
+    }
+
+    private ProjectionCheckpoint lockCheckpoint() {
+        return checkpointRepository.lock(NAME)
+                .orElseThrow(() -> new IllegalStateException("Projection checkpoint " + NAME + " is missing"));
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /** A payment's or expense's current contribution: its id, day, amount, category and booking. */
+    private record Entry(Long id, LocalDate day, long amount, String category, Long bookingId) {
+    }
+
+    /** One id window read for a rebuild, with its totals. */
+    private record Window(List<Entry> entries, Revenue totals) {
+    }
+
+    /** Changes to daily_revenue and pnl_rollup, written once per batch. */
+    private final class Revenue {
+        private final Map<LocalDate, long[]> days = new HashMap<>();
+        private final Map<PnlRollup.Key, long[]> rollups = new HashMap<>();
+
+        void add(EntityType source, LocalDate day, String category, long amount, int count) {
+            if (day == null) {
+                return;
+            }
+            long[] totals = days.computeIfAbsent(day, d -> new long[4]);
+            int offset = source == EntityType.PAYMENT ? 0 : 2;
+            totals[offset] += amount;
+            totals[offset + 1] += count;
+            // Entries counted before pnl_rollup existed have no category and were never in it.
+            if (category != null) {
+                addRollup(new PnlRollup.Key(RollupPeriod.DAY, day, source, category), amount, count);
+                addRollup(new PnlRollup.Key(RollupPeriod.MONTH, day.withDayOfMonth(1), source, category), amount, count);
+            }
+        }
+
+        private void addRollup(PnlRollup.Key key, long amount, int count) {
+            long[] totals = rollups.computeIfAbsent(key, k -> new long[2]);
+            totals[0] += amount;
+            totals[1] += count;
+        }
+
+        void merge(Revenue other) {
+            other.days.forEach((day, totals) -> addAll(days.computeIfAbsent(day, d -> new long[4]), totals));
+            other.rollups.forEach((key, totals) -> addAll(rollups.computeIfAbsent(key, k -> new long[2]), totals));
+        }
+
+        private static void addAll(long[] into, long[] totals) {
+            for (int i = 0; i < into.length; i++) {
+                into[i] += totals[i];
+            }
+        }
+
+        void apply() {
+            applyDays();
+            applyRollups();
+        }
+
+        private void applyDays() {
+            if (days.isEmpty()) {
+                return;
+            }
+            Map<LocalDate, DailyRevenue> rows = dailyRevenueRepository.findAllById(days.keySet()).stream()
+                    .collect(Collectors.toMap(DailyRevenue::getDay, Function.identity()));
+            days.forEach((day, totals) -> {
+                DailyRevenue row = rows.get(day);
+                if (row == null) {
+                    row = new DailyRevenue(day, 0, 0, 0, 0);
+                    entityManager.persist(row);
+                }
+                row.setRevenue(row.getRevenue() + totals[0]);
+                row.setPaymentCount(row.getPaymentCount() + (int) totals[1]);
+                row.setExpenses(row.getExpenses() + totals[2]);
+                row.setExpenseCount(row.getExpenseCount() + (int) totals[3]);
+                if (row.getPaymentCount() == 0 && row.getExpenseCount() == 0) {
+                    entityManager.remove(row);
+                }
+            });
+            days.clear();
+        }
+
+        private void applyRollups() {
+            if (rollups.isEmpty()) {
+                return;
+            }
+            Set<LocalDate> starts = rollups.keySet().stream().map(PnlRollup.Key::getStart).collect(Collectors.toSet());
+            Map<PnlRollup.Key, PnlRollup> rows = pnlRollupRepository.findByStartIn(starts).stream()
+                    .collect(Collectors.toMap(PnlRollup::getKey, Function.identity()));
+            rollups.forEach((key, totals) -> {
+                if (totals[0] == 0 && totals[1] == 0) {
+                    return; // edited without moving to another day or category
+                }
+                PnlRollup row = rows.get(key);
+                if (row == null) {
+                    row = new PnlRollup(key.getPeriod(), key.getStart(), key.getSource(), key.getCategory(), 0, 0);
+                    entityManager.persist(row);
+                }
+                row.setAmount(row.getAmount() + totals[0]);
+                row.setEntryCount(row.getEntryCount() + (int) totals[1]);
+                if (row.getEntryCount() == 0) {
+                    entityManager.remove(row);
+                }
+            });
+            rollups.clear();
+        }
+    }
+}
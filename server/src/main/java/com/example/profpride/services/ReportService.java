@@ -0,0 +1,184 @@
+package com.example.profpride.services;
+
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.configs.PropertyContext;
+import com.example.profpride.dtos.GroupPnlReport;
+import com.example.profpride.dtos.PnlReport;
+import com.example.profpride.enums.EntityType;
+import com.example.profpride.enums.RollupPeriod;
+import com.example.profpride.models.PnlRollup;
+import com.example.profpride.repositories.PnlRollupRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ReportService {
+
+    // Longer ranges are grouped by month.
+    private static final int MAX_DAYS_BY_DAY = 366;
+
+    @Autowired
+    private PnlRollupRepository pnlRollupRepository;
+
+    @Autowired
+    private PropertyContext propertyContext;
+
+    // Each one holds a connection to the database of the property it reads.
+    @Value("${profpride.sharding.fanout-threads:4}")
+    private int fanoutThreads;
+
+    private ExecutorService fanoutPool;
+
+    @PostConstruct
+    public void start() {
+        fanoutPool = Executors.newFixedThreadPool(fanoutThreads,
+                Thread.ofPlatform().name("property-fanout-", 1).daemon().factory());
+    }
+
+    @PreDestroy
+    public void stop() {
+        fanoutPool.shutdownNow();
+    }
+
+    /**
+     * Reads at most a few rows per day and category: grouped by month, whole months come
+     * from month rows and only the days before the first and after the last whole month
+     * from day rows.
+     */
+    public PnlReport getPnl(LocalDate from, LocalDate to, RollupPeriod groupBy) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must not be before from");
+        }
+        if (groupBy == RollupPeriod.DAY && ChronoUnit.DAYS.between(from, to) >= MAX_DAYS_BY_DAY) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Group ranges longer than " + MAX_DAYS_BY_DAY + " days by MONTH");
+        }
+        List<PnlRollup> rows = new ArrayList<>();
+        LocalDate firstMonth = from.getDayOfMonth() == 1 ? from : from.withDayOfMonth(1).plusMonths(1);
+        LocalDate afterLastMonth = to.plusDays(1).withDayOfMonth(1);
+        if (groupBy == RollupPeriod.MONTH && firstMonth.isBefore(afterLastMonth)) {
+            rows.addAll(find(RollupPeriod.MONTH, firstMonth, afterLastMonth.minusDays(1)));
+            rows.addAll(find(RollupPeriod.DAY, from, firstMonth.minusDays(1)));
+            rows.addAll(find(RollupPeriod.DAY, afterLastMonth, to));
+        } else {
+            rows.addAll(find(RollupPeriod.DAY, from, to));
+        }
+
+        Map<LocalDate, long[]> periods = new TreeMap<>();
+        long[] total = new long[4];
+        Map<String, Long> revenueByMode = new HashMap<>();
+        Map<String, Long> expensesByName = new HashMap<>();
+        for (PnlRollup row : rows) {
+            LocalDate start = groupBy == RollupPeriod.DAY ? row.getStart() : row.getStart().withDayOfMonth(1);
+            long[] line = periods.computeIfAbsent(start, s -> new long[4]);
+            int offset = row.getSource() == EntityType.PAYMENT ? 0 : 2;
+            line[offset] += row.getAmount();
+            line[offset + 1] += row.getEntryCount();
+            total[offset] += row.getAmount();
+            total[offset + 1] += row.getEntryCount();
+            (row.getSource() == EntityType.PAYMENT ? revenueByMode : expensesByName)
+                    .merge(row.getCategory(), row.getAmount(), Long::sum);
+        }
+        List<PnlReport.Line> lines = new ArrayList<>(periods.size());
+        periods.forEach((start, line) -> lines.add(line(start, line)));
+        return new PnlReport(from, to, groupBy, line(null, total), lines,
+                largestFirst(revenueByMode), largestFirst(expensesByName));
+    }
+
+    /**
+     * The P&L of every property, each read from its own database at the same time and
+     * then added up, so it takes about as long as the slowest property's report.
+     */
+    public GroupPnlReport getGroupPnl(LocalDate from, LocalDate to, RollupPeriod groupBy) {
+        Map<String, Future<PnlReport>> pending = new LinkedHashMap<>();
+        try {
+            for (String property : propertyContext.names()) {
+                pending.put(property, fanoutPool.submit(() -> {
+                    try (PropertyContext.Scope scope = PropertyContext.enter(property)) {
+                        return getPnl(from, to, groupBy);
+                    }
+                }));
+            }
+            Map<LocalDate, long[]> periods = new TreeMap<>();
+            long[] total = new long[4];
+            Map<String, Long> revenueByMode = new HashMap<>();
+            Map<String, Long> expensesByName = new HashMap<>();
+            Map<String, PnlReport.Line> byProperty = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<PnlReport>> entry : pending.entrySet()) {
+                PnlReport report = join(entry.getValue());
+                for (PnlReport.Line line : report.getPeriods()) {
+                    add(periods.computeIfAbsent(line.getStart(), s -> new long[4]), line);
+                }
+                add(total, report.getTotal());
+                report.getRevenueByMode().forEach((mode, amount) -> revenueByMode.merge(mode, amount, Long::sum));
+                report.getExpensesByName().forEach((name, amount) -> expensesByName.merge(name, amount, Long::sum));
+                byProperty.put(entry.getKey(), report.getTotal());
+            }
+            List<PnlReport.Line> lines = new ArrayList<>(periods.size());
+            periods.forEach((start, line) -> lines.add(line(start, line)));
+            return new GroupPnlReport(new PnlReport(from, to, groupBy, line(null, total), lines,
+                    largestFirst(revenueByMode), largestFirst(expensesByName)), byProperty);
+        } finally {
+            pending.values().forEach(report -> report.cancel(true));
+        }
+    }
+
+    private static PnlReport join(Future<PnlReport> report) {
+        try {
+            return report.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading property reports", e);
+        } catch (ExecutionException e) {
+            // Keeps a 400 for a bad range a 400.
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Could not read a property report", e.getCause());
+        }
+    }
+
+    private List<PnlRollup> find(RollupPeriod period, LocalDate from, LocalDate to) {
+        return from.isAfter(to) ? List.of() : pnlRollupRepository.findByPeriodAndStartBetween(period, from, to);
+    }
+
+    private static PnlReport.Line line(LocalDate start, long[] totals) {
+        return new PnlReport.Line(start, totals[0], (int) totals[1], totals[2], (int) totals[3]);
+    }
+
+    private static void add(long[] totals, PnlReport.Line line) {
+        totals[0] += line.getRevenue();
+        totals[1] += line.getPaymentCount();
+        totals[2] += line.getExpenses();
+        totals[3] += line.getExpenseCount();
+    }
+
+    private static Map<String, Long> largestFirst(Map<String, Long> amounts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        amounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.profpride.services;
+
+import com.example.profpride.configs.PropertyContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Serves the full list of a cached region's entity (rooms, rate cards) encoded once per
+ * region version and wire format, with a strong ETag and Last-Modified taken from
+ * cache_version.
+ *
+ * Every write to the region bumps its version (see CacheVersionService), so the version
+ * this instance knows is enough to answer a conditional GET: a matching If-None-Match or
+ * If-Modified-Since gets 304 without a query or any serialization. Other instances pick
+ * up a write on their next poll, so they may answer 304 for up to one poll interval.
+ * The format follows the Accept header like any other endpoint: JSON unless Smile or
+ * CBOR is asked for (see WireFormatConfig). Snapshots and ETags are per property, and
+ * responses vary on the X-Property header.
+ */
+@Component
+public class ResponseSnapshots {
+
+    @Autowired
+    private CacheVersionService cacheVersionService;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jsonConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public ResponseEntity<byte[]> respond(String region, WebRequest request, Supplier<?> load) {
+        AbstractJackson2HttpMessageConverter format = negotiate(request);
+        MediaType contentType = format.getSupportedMediaTypes().get(0);
+        CacheVersionService.Stamp stamp = cacheVersionService.getStamp(region);
+        if (stamp == null) {
+            // The region has not been polled yet (startup), so there is nothing to validate against.
+            return ResponseEntity.ok().contentType(contentType).body(encode(format, load.get()));
+        }
+        HttpHeaders validators = new HttpHeaders();
+        String property = PropertyContext.current();
+        validators.setETag("\"" + property + "-" + region + "-" + stamp.version() + "-" + contentType.getSubtype()
+                + "\"");
+        if (stamp.modifiedAt() != null) {
+            validators.setLastModified(stamp.modifiedAt());
+        }
+        validators.setVary(List.of(HttpHeaders.ACCEPT, PropertyContext.HEADER));
+        if (request.checkNotModified(validators.getETag(), validators.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(validators).build();
+        }
+
+        // The stamp was read before loading, so the bytes are never older than their version.
+        String key = property + " " + region + " " + contentType;
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null || snapshot.version() != stamp.version()) {
+            snapshot = snapshots.merge(key, new Snapshot(stamp.version(), encode(format, load.get())),
+                    (known, next) -> next.version() > known.version() ? next : known);
+        }
+        return ResponseEntity.ok()
+                .headers(validators)
+                .contentType(contentType)
+                .body(snapshot.body());
+    }
+
+    private AbstractJackson2HttpMessageConverter negotiate(WebRequest request) {
+        List<AbstractJackson2HttpMessageConverter> formats = List.of(jsonConverter, smileConverter, cborConverter);
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return jsonConverter;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+        } catch (IllegalArgumentException e) {
+            // unparsable or absurdly long Accept header
+            return jsonConverter;
+        }
+        for (MediaType type : accepted) {
+            for (AbstractJackson2HttpMessageConverter format : formats) {
+                if (format.getSupportedMediaTypes().stream().anyMatch(type::isCompatibleWith)) {
+                    return format;
+                }
+            }
+        }
+        return jsonConverter;
+    }
+
+    private static byte[] encode(AbstractJackson2HttpMessageConverter format, Object value) {
+        try {
+            return format.getObjectMapper().writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize response", e);
+        }
+    }
+
+    private record Snapshot(long version, byte[] body) {
+    }
+}
@@ -1,17 +1,31 @@
 package com.example.profpride.services;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import com.example.profpride.configs.MetricsConfig;
 import com.example.profpride.models.RoomCost;
+import com.example.profpride.models.SeasonalRate;
 import com.example.profpride.repositories.RoomCostRepository;
+import com.example.profpride.repositories.SeasonalRateRepository;
 import java.util.List;
 
+/**
+ * Rate cards and seasonal rates. Every write bumps the rate card cache region, which
+ * makes PricingEngine rebuild its table.
+ */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class RoomCostService {
 
     @Autowired
     private final RoomCostRepository roomCostRepository;
 
+    @Autowired
+    private SeasonalRateRepository seasonalRateRepository;
+
     public RoomCostService(RoomCostRepository roomCostRepository) {
         this.roomCostRepository = roomCostRepository;
     }
@@ -43,4 +57,47 @@ public class RoomCostService {
         RoomCost roomCost = getRoomCostById(id);
         roomCostRepository.delete(roomCost);
     }
+
+    public List<SeasonalRate> getAllSeasonalRates() {
+        return seasonalRateRepository.findAll();
+    }
+
+    public SeasonalRate createSeasonalRate(SeasonalRate seasonalRate) {
+        validate(seasonalRate);
+        seasonalRate.setId(null);
+        return seasonalRateRepository.save(seasonalRate);
+    }
+
+    public SeasonalRate updateSeasonalRate(Long id, SeasonalRate details) {
+        validate(details);
+        SeasonalRate seasonalRate = seasonalRateRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Seasonal rate not found"));
+        seasonalRate.setName(details.getName());
+        seasonalRate.setRoomType(details.getRoomType());
+        seasonalRate.setBathroomType(details.getBathroomType());
+        seasonalRate.setBookingDurationType(details.getBookingDurationType());
+        seasonalRate.setStartDate(details.getStartDate());
+        seasonalRate.setEndDate(details.getEndDate());
+        seasonalRate.setYearly(details.isYearly());
+        seasonalRate.setCost(details.getCost());
+        return seasonalRateRepository.save(seasonalRate);
+    }
+
+    public void deleteSeasonalRate(Long id) {
+        SeasonalRate seasonalRate = seasonalRateRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Seasonal rate not found"));
+        seasonalRateRepository.delete(seasonalRate);
+    }
+
+    private static void validate(SeasonalRate rate) {
+        if (rate.getStartDate() == null || rate.getEndDate() == null || rate.getCost() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate, endDate and cost are required");
+        }
+        if (rate.getEndDate().isBefore(rate.getStartDate()) || rate.getCost() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endDate is before startDate or cost is negative");
+        }
+        if (rate.isYearly() && !rate.getEndDate().isBefore(rate.getStartDate().plusYears(1))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A yearly rate must cover less than a year");
+        }
+    }
 }
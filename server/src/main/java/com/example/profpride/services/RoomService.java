@@ -1,5 +1,91 @@
 package com.example.profpride.services;
 
+import com.example.profpride.configs.CacheRegions;
+import com.example.profpride.configs.MetricsConfig;
+import com.example.profpride.configs.PropertyContext;
+import com.example.profpride.enums.BathroomType;
+import com.example.profpride.enums.RoomType;
+import com.example.profpride.models.Room;
+import com.example.profpride.repositories.RoomRepository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Finds free rooms from the occupancy bitsets in OccupancyIndex. The room list is kept
+ * as a snapshot tagged with the rooms region's version (see CacheVersionService) and
+ * reloaded on the first search after it moves, so a search runs no queries. Each
+ * property has its own snapshot.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class RoomService {
 
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Autowired
+    private CacheVersionService cacheVersionService;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final Map<String, Rooms> rooms = new ConcurrentHashMap<>();
+
+    /**
+     * The rooms of the given type and bathroom (either may be null for any) that are free
+     * for every night from {@code from} up to the checkout day {@code to}. As with
+     * bookings, a same-day stay counts as one night.
+     */
+    public List<Room> getAvailableRooms(LocalDate from, LocalDate to, RoomType roomType, BathroomType bathroomType) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must not be before from");
+        }
+        List<Room> all = rooms().list();
+        List<Room> candidates = new ArrayList<>(all.size());
+        for (Room room : all) {
+            if ((roomType == null || room.getRoomType() == roomType)
+                    && (bathroomType == null || room.getBathroomType() == bathroomType)) {
+                candidates.add(room);
+            }
+        }
+        long firstNight = from.toEpochDay();
+        return occupancyIndex.freeRooms(candidates, firstNight, Math.max(to.toEpochDay(), firstNight + 1));
+    }
+
+    private Rooms rooms() {
+        CacheVersionService.Stamp stamp = cacheVersionService.getStamp(CacheRegions.ROOMS);
+        long version = stamp != null ? stamp.version() : -1;
+        String property = PropertyContext.current();
+        Rooms current = rooms.get(property);
+        if (current != null && current.version() == version) {
+            return current;
+        }
+        reloadLock.lock();
+        try {
+            current = rooms.get(property);
+            if (current == null || current.version() != version) {
+                // the cached room list, so usually no query either
+                current = new Rooms(version, List.copyOf(roomRepository.findAll()));
+                rooms.put(property, current);
+            }
+            return current;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private record Rooms(long version, List<Room> list) {
+    }
 }
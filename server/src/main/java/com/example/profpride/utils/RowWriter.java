@@ -0,0 +1,112 @@
+package com.example.profpride.utils;
+
+import com.example.profpride.enums.ExportFormat;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes flat rows straight to an output stream as CSV or newline-delimited JSON,
+ * so an export never holds more than the current row in memory.
+ */
+public abstract class RowWriter implements AutoCloseable {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    protected final String[] columns;
+
+    protected RowWriter(String[] columns) {
+        this.columns = columns;
+    }
+
+    public static RowWriter open(ExportFormat format, OutputStream out, String... columns) throws IOException {
+        return format == ExportFormat.NDJSON ? new NdjsonWriter(out, columns) : new CsvWriter(out, columns);
+    }
+
+    public abstract void write(Object... values) throws IOException;
+
+    public abstract void flush() throws IOException;
+
+    @Override
+    public abstract void close() throws IOException;
+
+    private static final class CsvWriter extends RowWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream out, String[] columns) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            write((Object[]) columns);
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(Csv.escape(values[i].toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class NdjsonWriter extends RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonWriter(OutputStream out, String[] columns) throws IOException {
+            super(columns);
+            this.generator = JSON.createGenerator(out, JsonEncoding.UTF8);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.profpride.services;
+
+import com.example.profpride.configs.PropertyContext;
+import com.example.profpride.enums.BookingStatusType;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.OutboxEvent;
+import com.example.profpride.models.Room;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers OccupancyIndex from many threads with overlapping bookings, moves and
+ * cancellations on a handful of rooms, and checks that it never accepts two stays of
+ * one room on the same night.
+ *
+ * Every accepted write is also entered in a ledger from inside its save callback, which
+ * runs while the index holds the room's lock: if two overlapping stays were both
+ * accepted, the second one to be saved finds the first one in the ledger.
+ *
+ * The index is also checked against concurrent moves of the same booking, some of
+ * which roll back, the way two clashing PUTs do when one fails its version check.
+ */
+class OccupancyIndexTest {
+
+    private static final int THREADS = 16;
+    private static final int WRITES_PER_THREAD = 5_000;
+    private static final int ROOMS = 4;
+    private static final int DAYS = 60;
+
+    private final long firstDay = LocalDate.now().toEpochDay();
+    private final List<Room> rooms = new ArrayList<>();
+    private final AtomicLong bookingIds = new AtomicLong();
+    // Booking id -> {room id, first night, last night exclusive}, as accepted by the index.
+    private final Map<Long, long[]> ledger = new HashMap<>();
+    private final List<String> doubleBookings = new ArrayList<>();
+
+    private BookingRepository bookingRepository;
+    private OccupancyIndex occupancyIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findStaysExcludingStatus(any())).thenReturn(List.of());
+        // refresh() finds no outbox events; only its retries are reloaded.
+        @SuppressWarnings("unchecked")
+        TypedQuery<OutboxEvent> noEvents = mock(TypedQuery.class, RETURNS_SELF);
+        when(noEvents.getResultList()).thenReturn(List.of());
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.createQuery(anyString(), eq(OutboxEvent.class))).thenReturn(noEvents);
+        occupancyIndex = new OccupancyIndex();
+        ReflectionTestUtils.setField(occupancyIndex, "entityManager", entityManager);
+        ReflectionTestUtils.setField(occupancyIndex, "gapTimeout", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(occupancyIndex, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(occupancyIndex, "outboxEventRepository", mock(OutboxEventRepository.class));
+        ReflectionTestUtils.setField(occupancyIndex, "propertyContext", new PropertyContext());
+        occupancyIndex.load();
+        for (long id = 1; id <= ROOMS; id++) {
+            Room room = new Room();
+            room.setId(id);
+            rooms.add(room);
+        }
+    }
+
+    @Test
+    void neverAcceptsOverlappingStaysUnderConcurrentWrites() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            writers.add(() -> {
+                Random random = new Random(seed);
+                List<Booking> own = new ArrayList<>();
+                start.await();
+                for (int i = 0; i < WRITES_PER_THREAD; i++) {
+                    int action = random.nextInt(10);
+                    if (action < 2 && !own.isEmpty()) {
+                        cancel(own.remove(random.nextInt(own.size())));
+                        continue;
+                    }
+                    // A new booking, or one of ours moved to another room and other nights.
+                    Booking booking = action < 5 && !own.isEmpty() ? own.get(random.nextInt(own.size())) : null;
+                    Booking request = stay(booking != null ? booking.getId() : null, random);
+                    try {
+                        Booking saved = occupancyIndex.reserve(request, () -> save(request));
+                        if (booking == null) {
+                            own.add(saved);
+                        }
+                        accepted.incrementAndGet();
+                    } catch (ResponseStatusException e) {
+                        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            writers.forEach(writer -> results.add(pool.submit(writer)));
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(doubleBookings).isEmpty();
+        // Both paths were exercised under contention.
+        assertThat(accepted.get()).isGreaterThan(1000);
+        assertThat(conflicts.get()).isGreaterThan(1000);
+
+        // The availability bitsets agree with what was accepted, night by night.
+        for (int day = 0; day < DAYS + 6; day++) {
+            long night = firstDay + day;
+            List<Long> booked = ledger.values().stream()
+                    .filter(stay -> stay[1] <= night && night < stay[2])
+                    .map(stay -> stay[0])
+                    .toList();
+            for (Room room : occupancyIndex.freeRooms(rooms, night, night + 1)) {
+                assertThat(booked).as("room %d on night %d", room.getId(), day).doesNotContain(room.getId());
+            }
+            assertThat(occupancyIndex.freeRooms(rooms, night, night + 1)).hasSize(ROOMS - booked.size());
+        }
+    }
+
+    @Test
+    void keepsOnlyTheCommittedPlacementOfBookingsMovedConcurrently() throws Exception {
+        // Each shared booking moves between rooms of its own, so no two of them can clash
+        // and every 409 or leftover night would be the index's doing.
+        int shared = 4;
+        int roomsEach = 3;
+        List<Room> sharedRooms = new ArrayList<>();
+        for (long id = 101; id <= 100 + shared * roomsEach; id++) {
+            Room room = new Room();
+            room.setId(id);
+            sharedRooms.add(room);
+        }
+        // What the database holds for each booking: {room id, first night, last night exclusive,
+        // version}, with room id 0 while it is cancelled.
+        long[][] committed = new long[shared][];
+        for (int b = 0; b < shared; b++) {
+            Booking booking = booking((long) b + 1, sharedRooms.get(b * roomsEach), 0, 2);
+            occupancyIndex.reserve(booking, () -> booking);
+            committed[b] = new long[] { booking.getRoom().getId(), firstDay, firstDay + 2, 0 };
+        }
+
+        // A rollback may restore a placement that was itself rolled back; refresh() then
+        // reloads the booking from here.
+        when(bookingRepository.findStaysByIdInExcludingStatus(any(), any())).thenAnswer(invocation -> {
+            List<BookingRepository.StayView> stays = new ArrayList<>();
+            synchronized (committed) {
+                for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                    long[] stay = committed[(int) (long) (Long) id - 1];
+                    if (stay[0] != 0) {
+                        stays.add(stayView((Long) id, stay));
+                    }
+                }
+            }
+            return stays;
+        });
+
+        // Short rounds with a check after each: a stray placement can be overwritten by
+        // later moves, so checking only at the very end would miss most of them.
+        AtomicInteger commits = new AtomicInteger();
+        AtomicInteger rollbacks = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < 50; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Void>> results = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    long seed = round * THREADS + t;
+                    results.add(pool.submit(() -> {
+                        Random random = new Random(seed);
+                        start.await();
+                        for (int i = 0; i < 100; i++) {
+                            int b = random.nextInt(shared);
+                            Booking move = booking((long) b + 1,
+                                    sharedRooms.get(b * roomsEach + random.nextInt(roomsEach)),
+                                    random.nextInt(DAYS), 1 + random.nextInt(5));
+                            if (random.nextInt(10) == 0) {
+                                move.setBookingStatus(BookingStatusType.CANCELLED);
+                            }
+                            boolean committedMove = move(move, committed, b, random.nextInt(4) > 0);
+                            (committedMove ? commits : rollbacks).incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<Void> result : results) {
+                    result.get();
+                }
+
+                occupancyIndex.refresh();
+                for (int day = 0; day < DAYS + 6; day++) {
+                    long night = firstDay + day;
+                    List<Long> booked = new ArrayList<>();
+                    for (long[] stay : committed) {
+                        if (stay[1] <= night && night < stay[2]) {
+                            booked.add(stay[0]);
+                        }
+                    }
+                    List<Long> free = occupancyIndex.freeRooms(sharedRooms, night, night + 1).stream()
+                            .map(Room::getId).toList();
+                    for (Room room : sharedRooms) {
+                        assertThat(free.contains(room.getId()))
+                                .as("round %d: room %d free on night %d", round, room.getId(), day)
+                                .isEqualTo(!booked.contains(room.getId()));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(commits.get()).isGreaterThan(1000);
+        assertThat(rollbacks.get()).isGreaterThan(1000);
+    }
+
+    /**
+     * Moves or cancels a booking in a transaction of its own, as a PUT does. The update only commits
+     * if {@code commit} and no other move committed since this one read the booking's
+     * version, like Hibernate's version check; otherwise it rolls back.
+     */
+    private boolean move(Booking move, long[][] committed, int b, boolean commit) {
+        long version;
+        synchronized (committed) {
+            version = committed[b][3];
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            occupancyIndex.reserve(move, () -> move);
+            if (commit) {
+                synchronized (committed) {
+                    commit = committed[b][3] == version;
+                    if (commit) {
+                        boolean cancelled = move.getBookingStatus() == BookingStatusType.CANCELLED;
+                        committed[b] = new long[] { cancelled ? 0 : move.getRoom().getId(),
+                                move.getCheckInDate().toLocalDate().toEpochDay(),
+                                move.getCheckOutDate().toLocalDate().toEpochDay(), version + 1 };
+                    }
+                }
+            }
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(commit ? TransactionSynchronization.STATUS_COMMITTED
+                        : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+            return commit;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Booking booking(Long id, Room room, int firstNight, int nights) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setRoom(room);
+        LocalDate checkIn = LocalDate.ofEpochDay(firstDay + firstNight);
+        booking.setCheckInDate(checkIn.atTime(14, 0));
+        booking.setCheckOutDate(checkIn.plusDays(nights).atTime(11, 0));
+        booking.setBookingStatus(BookingStatusType.NEW);
+        return booking;
+    }
+
+    private static BookingRepository.StayView stayView(Long id, long[] stay) {
+        return new BookingRepository.StayView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getRoomId() {
+                return stay[0];
+            }
+
+            @Override
+            public LocalDateTime getCheckInDate() {
+                return LocalDate.ofEpochDay(stay[1]).atTime(14, 0);
+            }
+
+            @Override
+            public LocalDateTime getCheckOutDate() {
+                return LocalDate.ofEpochDay(stay[2]).atTime(11, 0);
+            }
+        };
+    }
+
+    private Booking stay(Long id, Random random) {
+        return booking(id, rooms.get(random.nextInt(ROOMS)), random.nextInt(DAYS), 1 + random.nextInt(5));
+    }
+
+    // Runs under the index's room locks, like BookingRepository.save in BookingService.
+    private Booking save(Booking booking) {
+        if (booking.getId() == null) {
+            booking.setId(bookingIds.incrementAndGet());
+        }
+        long[] stay = { booking.getRoom().getId(), booking.getCheckInDate().toLocalDate().toEpochDay(),
+                booking.getCheckOutDate().toLocalDate().toEpochDay() };
+        synchronized (ledger) {
+            ledger.remove(booking.getId());
+            ledger.forEach((otherId, other) -> {
+                if (other[0] == stay[0] && other[1] < stay[2] && stay[1] < other[2]) {
+                    doubleBookings.add("booking " + booking.getId() + " overlaps " + otherId + " in room " + stay[0]);
+                }
+            });
+            ledger.put(booking.getId(), stay);
+        }
+        return booking;
+    }
+
+    // Out of the ledger first: the index still holds the nights until release() returns.
+    private void cancel(Booking booking) {
+        synchronized (ledger) {
+            ledger.remove(booking.getId());
+        }
+        occupancyIndex.release(booking.getId());
+    }
+}